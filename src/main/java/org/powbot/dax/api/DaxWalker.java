@@ -5,22 +5,41 @@ import org.powbot.api.Tile;
 import org.powbot.api.rt4.*;
 import org.powbot.api.rt4.Objects;
 import org.powbot.dax.api.models.*;
+import org.powbot.dax.api.utils.PathExecutor;
 import org.powbot.dax.engine.Loggable;
 import org.powbot.dax.engine.WaitFor;
 import org.powbot.dax.engine.WalkerEngine;
 import org.powbot.dax.engine.WalkingCondition;
+import org.powbot.dax.engine.global.CollisionHarvester;
+import org.powbot.dax.engine.global.GlobalPathFinder;
+import org.powbot.dax.engine.local.AStar;
 import org.powbot.dax.engine.navigation.ShipUtils;
+import org.powbot.dax.engine.navigation.TransportIndex;
 import org.powbot.dax.engine.navigation.fairyring.FairyRing;
 import org.powbot.dax.teleports.Teleport;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 public class DaxWalker implements Loggable {
 
-    private static Map<Tile, Teleport> map;
+    private static final int PREFETCH_START_DISTANCE = 15;
+    /**
+     * Milliseconds to wait for a prefetched path still in flight before requesting one synchronously instead.
+     */
+    private static final long PREFETCH_TIMEOUT = 3000;
+    private static final int DEFAULT_SCENE_WALK_DISTANCE = 0, SCENE_WALK_DETOUR = 10;
+
     private static DaxWalker daxWalker;
+    private static final Map<Tile, PrefetchedPath> prefetched = new ConcurrentHashMap<>();
+    private static volatile RoutePlan routePlan;
 
     public static DaxWalker getInstance() {
         return daxWalker != null ? daxWalker : (daxWalker = new DaxWalker());
@@ -29,14 +48,11 @@ public class DaxWalker implements Loggable {
     public boolean useRun = true;
 
     private WalkingCondition globalWalkingCondition;
+    private volatile int sceneWalkDistance = DEFAULT_SCENE_WALK_DISTANCE;
 
     private DaxWalker() {
         globalWalkingCondition = () -> WalkingCondition.State.CONTINUE_WALKER;
 
-        map = new ConcurrentHashMap<>();
-        for (Teleport teleport : Teleport.values()) {
-            map.put(teleport.getLocation(), teleport);
-        }
         blacklist.addAll(Arrays.asList(
                 Teleport.NARDAH_TELEPORT, Teleport.DIGSITE_TELEPORT, Teleport.FELDIP_HILLS_TELEPORT,
                 Teleport.LUNAR_ISLE_TELEPORT, Teleport.MORTTON_TELEPORT, Teleport.PEST_CONTROL_TELEPORT, Teleport.TAI_BWO_WANNAI_TELEPORT,
@@ -96,6 +112,59 @@ public class DaxWalker implements Loggable {
         WebWalkerServerApi.getInstance().setTestMode(b);
     }
 
+    public static void setPathingMode(PathingMode pathingMode) {
+        WebWalkerServerApi.getInstance().setPathingMode(pathingMode);
+    }
+
+    /**
+     * Loads the world graph used by {@link PathingMode#LOCAL_ONLY}, {@link PathingMode#LOCAL_FIRST} and {@link PathingMode#REMOTE_FIRST}.
+     *
+     * @param directory containing the collision and transport files.
+     * @return whether the graph was loaded.
+     */
+    public static boolean loadLocalWorldGraph(File directory) {
+        try {
+            GlobalPathFinder.getInstance().load(directory);
+            return true;
+        } catch (IOException e) {
+            getInstance().log(Level.WARNING, "Failed to load world graph: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Starts harvesting collision data of every visited region into the directory, see {@link CollisionHarvester}.
+     *
+     * @param directory local world graph directory.
+     * @return whether the harvester was started.
+     */
+    public static boolean startCollisionHarvester(File directory) {
+        try {
+            CollisionHarvester.getInstance().start(directory);
+            return true;
+        } catch (IOException e) {
+            getInstance().log(Level.WARNING, "Failed to start collision harvester: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Stops harvesting and compacts the journal into the collision file, see {@link CollisionHarvester#stop()}.
+     */
+    public static void stopCollisionHarvester() {
+        CollisionHarvester.getInstance().stop();
+    }
+
+    /**
+     * Destinations within this many tiles in the loaded scene are walked to with a local A* path instead of asking the
+     * server. Off by default, 0 always asks the server. The local path only sees the collision of the scene, closed doors
+     * and shortcuts the server would route through count as walls. The server is asked if no path within a small detour
+     * is found.
+     */
+    public static void setSceneWalkDistance(int distance) {
+        getInstance().sceneWalkDistance = distance;
+    }
+
     public static void setGlobalWalkingCondition(WalkingCondition walkingCondition) {
         getInstance().globalWalkingCondition = walkingCondition;
     }
@@ -117,25 +186,19 @@ public class DaxWalker implements Loggable {
         if (start.equals(destination)) {
             return true;
         }
-        if(Objects.stream(start, GameObject.Type.FLOOR_DECORATION).name("Fairy ring").isNotEmpty()){
-            start = start.derive(0, 1);
-        }
-
-        List<Item> inventory = Inventory.stream().list();
-        List<Item> equipment = Equipment.stream().list();
-        PlayerDetails playerDetails = PlayerDetails.generate(inventory, equipment);
-        boolean isInPvpWorld = Worlds.current().getSpecialty() == World.Specialty.PVP;
-        Varpbits.cache();
 
-        List<PathRequestPair> pathRequestPairs = getInstance().getPathTeleports(playerDetails.isMember(), isInPvpWorld, destination.tile(), inventory, equipment);
-
-        pathRequestPairs.add(new PathRequestPair(Point3D.fromTile(start), Point3D.fromTile(destination.tile())));
-
-        List<PathResult> pathResults = WebWalkerServerApi.getInstance().getPaths(new BulkPathRequest(playerDetails, pathRequestPairs));
-
-        List<PathResult> validPaths = getInstance().validPaths(pathResults);
+        List<Tile> scenePath = getInstance().getScenePath(start, destination.tile());
+        if (scenePath != null) {
+            getInstance().log("Walking scene path of " + (scenePath.size() - 1) + " tiles");
+            return WalkerEngine.getInstance().walkPath(scenePath, getGlobalWalkingCondition().combine(walkingCondition), runMin, runMax);
+        }
 
-        PathResult pathResult = getInstance().getBestPath(validPaths);
+        PlayerState playerState = PlayerState.capture();
+        PathResult pathResult = getInstance().takePrefetched(destination.tile(), playerState);
+        if (pathResult == null) {
+            pathResult = getInstance().generatePath(getStartTile(start), destination.tile(), playerState);
+        }
+        refreshRoutePlan(playerState, destination.tile());
         if (pathResult == null) {
             getInstance().log(Level.WARNING, "No valid path found");
             return false;
@@ -175,21 +238,14 @@ public class DaxWalker implements Loggable {
         if (bank != null)
             return walkTo(bank.getPosition(), getGlobalWalkingCondition().combine(walkingCondition), runMin, runMax);
 
-        List<Item> inventory = Inventory.stream().list();
-        List<Item> equipment = Equipment.stream().list();
-        PlayerDetails playerDetails = PlayerDetails.generate(inventory, equipment);
-        boolean isInPvpWorld = Worlds.current().getSpecialty() == World.Specialty.PVP;
-        Varpbits.cache();
-
-        List<BankPathRequestPair> pathRequestPairs = getInstance().getBankPathTeleports(playerDetails.isMember(), isInPvpWorld, inventory, equipment);
-        Tile start = Players.local().tile();
-        if(Objects.stream(start, GameObject.Type.FLOOR_DECORATION).name("Fairy ring").isNotEmpty()){
-            start = start.derive(0, 1);
-        }
+        PlayerState playerState = PlayerState.capture();
+        List<BankPathRequestPair> pathRequestPairs = getInstance().getBankPathTeleports(playerState.playerDetails.isMember(), playerState.pvp,
+                playerState.inventory, playerState.equipment);
+        Tile start = getStartTile(Players.local().tile());
         pathRequestPairs.add(new BankPathRequestPair(Point3D.fromTile(start), null));
 
         List<PathResult> pathResults = WebWalkerServerApi.getInstance().getBankPaths(new BulkBankPathRequest(
-                playerDetails, pathRequestPairs));
+                playerState.playerDetails, pathRequestPairs));
 
         List<PathResult> validPaths = getInstance().validPaths(pathResults);
         PathResult pathResult = getInstance().getBestPath(validPaths);
@@ -201,11 +257,7 @@ public class DaxWalker implements Loggable {
     }
 
     public static List<Tile> getPath(Locatable destination) {
-        Tile start = Players.local().tile();
-        if(Objects.stream(start, GameObject.Type.FLOOR_DECORATION).name("Fairy ring").isNotEmpty()){
-            start = start.derive(0, 1);
-        }
-        return getPath(start, destination);
+        return getPath(getStartTile(Players.local().tile()), destination);
     }
 
     public static List<Tile> getPath(Locatable start, Locatable destination) {
@@ -213,21 +265,7 @@ public class DaxWalker implements Loggable {
             return Collections.emptyList();
         }
 
-        List<Item> inventory = Inventory.stream().list();
-        List<Item> equipment = Equipment.stream().list();
-        PlayerDetails playerDetails = PlayerDetails.generate(inventory, equipment);
-        boolean isInPvpWorld = Worlds.current().getSpecialty() == World.Specialty.PVP;
-        Varpbits.cache();
-
-        List<PathRequestPair> pathRequestPairs = getInstance().getPathTeleports(playerDetails.isMember(), isInPvpWorld, destination.tile(), inventory, equipment);
-
-        pathRequestPairs.add(new PathRequestPair(Point3D.fromTile(start.tile()), Point3D.fromTile(destination.tile())));
-
-        List<PathResult> pathResults = WebWalkerServerApi.getInstance().getPaths(new BulkPathRequest(playerDetails, pathRequestPairs));
-
-        List<PathResult> validPaths = getInstance().validPaths(pathResults);
-
-        PathResult pathResult = getInstance().getBestPath(validPaths);
+        PathResult pathResult = getInstance().generatePath(start.tile(), destination.tile(), PlayerState.capture());
         if (pathResult == null) {
             getInstance().log(Level.WARNING, "No valid path found");
             return Collections.emptyList();
@@ -238,6 +276,175 @@ public class DaxWalker implements Loggable {
         return pathResult.toRSTilePath();
     }
 
+    /**
+     * Generates the path on a background thread. Player details and teleports are read on the calling thread.
+     *
+     * @param destination
+     * @return future of the best path, completed with null if there is no valid path.
+     */
+    public static CompletableFuture<PathResult> getPathAsync(Locatable destination) {
+        return getPathAsync(getStartTile(Players.local().tile()), destination);
+    }
+
+    public static CompletableFuture<PathResult> getPathAsync(Locatable start, Locatable destination) {
+        return getInstance().generatePathAsync(start.tile(), destination.tile(), PlayerState.capture());
+    }
+
+    /**
+     * Starts generating the path to destination in the background. The next {@link #walkTo(Locatable)} to the same
+     * destination uses the prefetched path instead of requesting a new one.
+     *
+     * @param destination
+     * @return future of the prefetched path.
+     */
+    public static CompletableFuture<PathResult> prefetchPath(Locatable destination) {
+        return prefetch(getStartTile(Players.local().tile()), destination.tile(), PlayerState.capture());
+    }
+
+    public static void clearPrefetchedPaths() {
+        prefetched.clear();
+    }
+
+    /**
+     * Declares the destinations the script loops between. Paths for every leg are generated in the background and
+     * regenerated whenever the inventory or equipment changes, so walking a leg does not wait on the server.
+     *
+     * @param destinations in walking order.
+     */
+    public static void setRoutePlan(Locatable... destinations) {
+        setRoutePlan(Arrays.asList(destinations));
+    }
+
+    public static void setRoutePlan(List<? extends Locatable> destinations) {
+        clearRoutePlan();
+        if (destinations.size() < 2) {
+            return;
+        }
+        routePlan = new RoutePlan(destinations);
+        refreshRoutePlan(PlayerState.capture(), null);
+    }
+
+    public static RoutePlan getRoutePlan() {
+        return routePlan;
+    }
+
+    public static void clearRoutePlan() {
+        RoutePlan plan = routePlan;
+        routePlan = null;
+        if (plan != null) {
+            plan.getDestinations().forEach(prefetched::remove);
+        }
+    }
+
+    /**
+     * @param walking destination being walked to, its leg was just used and is prefetched again once another leg is
+     *                walked.
+     */
+    private static void refreshRoutePlan(PlayerState playerState, Tile walking) {
+        RoutePlan plan = routePlan;
+        if (plan == null) {
+            return;
+        }
+        for (int i = 0; i < plan.size(); i++) {
+            Tile destination = plan.getDestinations().get(i);
+            if (destination.equals(walking)) {
+                continue;
+            }
+            PrefetchedPath prefetchedPath = prefetched.get(destination);
+            if (prefetchedPath != null && prefetchedPath.fingerprint.equals(playerState.fingerprint)) {
+                continue;
+            }
+            prefetch(plan.getLegStart(i), destination, playerState);
+        }
+    }
+
+    private static CompletableFuture<PathResult> prefetch(Tile start, Tile destination, PlayerState playerState) {
+        CompletableFuture<PathResult> future = getInstance().generatePathAsync(start, destination, playerState);
+        prefetched.put(destination, new PrefetchedPath(future, playerState.fingerprint));
+        return future;
+    }
+
+    /**
+     * @return A* path inside the loaded scene if the destination is close and not much of a detour away, null if the
+     * server should be asked, it knows about doors and shortcuts.
+     */
+    private List<Tile> getScenePath(Tile start, Tile destination) {
+        int distance = Math.max(Math.abs(destination.getX() - start.getX()), Math.abs(destination.getY() - start.getY()));
+        if (sceneWalkDistance <= 0 || distance > sceneWalkDistance || start.floor() != destination.floor()) {
+            return null;
+        }
+        return AStar.findPath(destination, distance + SCENE_WALK_DETOUR);
+    }
+
+    private static Tile getStartTile(Tile start) {
+        if(Objects.stream(start, GameObject.Type.FLOOR_DECORATION).name("Fairy ring").isNotEmpty()){
+            return start.derive(0, 1);
+        }
+        return start;
+    }
+
+    private PathResult generatePath(Tile start, Tile destination, PlayerState playerState) {
+        BulkPathRequest bulkPathRequest = createPathRequest(start, destination, playerState);
+        List<PathResult> pathResults = WebWalkerServerApi.getInstance().getPaths(bulkPathRequest);
+        return getBestPath(validPaths(pathResults), Players.local().tile());
+    }
+
+    private CompletableFuture<PathResult> generatePathAsync(Tile start, Tile destination, PlayerState playerState) {
+        BulkPathRequest bulkPathRequest = createPathRequest(start, destination, playerState);
+        return PathExecutor.submit(() -> getBestPath(
+                validPaths(WebWalkerServerApi.getInstance().getPaths(bulkPathRequest)), start));
+    }
+
+    private BulkPathRequest createPathRequest(Tile start, Tile destination, PlayerState playerState) {
+        List<PathRequestPair> pathRequestPairs = getPathTeleports(playerState.playerDetails.isMember(), playerState.pvp, destination,
+                playerState.inventory, playerState.equipment);
+
+        pathRequestPairs.add(new PathRequestPair(Point3D.fromTile(start), Point3D.fromTile(destination)));
+
+        return new BulkPathRequest(playerState.playerDetails, pathRequestPairs);
+    }
+
+    private PathResult takePrefetched(Tile destination, PlayerState playerState) {
+        PrefetchedPath prefetchedPath = prefetched.remove(destination);
+        if (prefetchedPath == null) {
+            return null;
+        }
+        if (!prefetchedPath.fingerprint.equals(playerState.fingerprint)) {
+            log("Inventory or equipment changed since path was prefetched.");
+            return null;
+        }
+        PathResult pathResult;
+        try {
+            pathResult = prefetchedPath.future.get(PREFETCH_TIMEOUT, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log(Level.WARNING, "Prefetched path did not complete in " + PREFETCH_TIMEOUT + "ms.");
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            log(Level.WARNING, "Prefetched path failed: " + e.getCause());
+            return null;
+        }
+        if (pathResult == null || !isUsableFromHere(pathResult)) {
+            return null;
+        }
+        log("Using prefetched path.");
+        return pathResult;
+    }
+
+    private boolean isUsableFromHere(PathResult pathResult) {
+        Tile startTile = pathResult.getStartTile();
+        if (startTile == null) {
+            return false;
+        }
+        if (!TransportIndex.getAt(startTile, Teleport.class).isEmpty()) {
+            return true;
+        }
+        Tile playerPosition = Players.local().tile();
+        return startTile.floor() == playerPosition.floor() && startTile.distanceTo(playerPosition) <= PREFETCH_START_DISTANCE;
+    }
+
     private List<PathRequestPair> getPathTeleports(boolean members, boolean pvp, Tile start, List<Item> inventory, List<Item> equipment) {
         return Teleport.getValidStartingRSTiles(members, pvp, getBlacklist(), inventory, equipment).stream()
                 .map(t -> new PathRequestPair(Point3D.fromTile(t),
@@ -263,16 +470,20 @@ public class DaxWalker implements Loggable {
     }
 
     public PathResult getBestPath(List<PathResult> list) {
-        return list.stream().min(Comparator.comparingInt(this::getPathMoveCost)).orElse(null);
+        return getBestPath(list, Players.local().tile());
     }
 
-    private int getPathMoveCost(PathResult pathResult) {
-        if (Players.local().tile().equals(pathResult.getPath().get(0).toTile())) {
+    public PathResult getBestPath(List<PathResult> list, Tile playerPosition) {
+        return list.stream().min(Comparator.comparingInt(pathResult -> getPathMoveCost(pathResult, playerPosition))).orElse(null);
+    }
+
+    private int getPathMoveCost(PathResult pathResult, Tile playerPosition) {
+        Tile startTile = pathResult.getStartTile();
+        if (playerPosition.equals(startTile)) {
 //            System.out.println("Path starts at player current position.  Path cost: " + pathResult.getCost());
             return pathResult.getCost();
         }
-        Tile startTile = pathResult.getPath().get(0).toTile();
-        Teleport teleport = map.get(startTile);
+        Teleport teleport = getTeleport(startTile);
         if (teleport == null) {
 //            System.out.println("Path is not with a teleport. Cost: " + pathResult.getCost());
             return pathResult.getCost();
@@ -281,8 +492,49 @@ public class DaxWalker implements Loggable {
         return teleport.getMoveCost() + pathResult.getCost();
     }
 
+    /**
+     * @return cheapest teleport leading to the tile, null if none does.
+     */
+    private static Teleport getTeleport(Tile tile) {
+        if (tile == null) {
+            return null;
+        }
+        return TransportIndex.getAt(tile, Teleport.class).stream().min(Comparator.comparingInt(Teleport::getMoveCost)).orElse(null);
+    }
+
     @Override
     public String getName() {
         return "DaxWalker";
     }
+
+    private static class PlayerState {
+        private final List<Item> inventory, equipment;
+        private final PlayerDetails playerDetails;
+        private final boolean pvp;
+        private final String fingerprint;
+
+        private PlayerState(List<Item> inventory, List<Item> equipment) {
+            this.inventory = inventory;
+            this.equipment = equipment;
+            this.playerDetails = PlayerDetails.generate(inventory, equipment);
+            this.pvp = Worlds.current().getSpecialty() == World.Specialty.PVP;
+            this.fingerprint = RoutePlan.fingerprint(inventory, equipment);
+        }
+
+        private static PlayerState capture() {
+            PlayerState playerState = new PlayerState(Inventory.stream().list(), Equipment.stream().list());
+            Varpbits.cache();
+            return playerState;
+        }
+    }
+
+    private static class PrefetchedPath {
+        private final CompletableFuture<PathResult> future;
+        private final String fingerprint;
+
+        private PrefetchedPath(CompletableFuture<PathResult> future, String fingerprint) {
+            this.future = future;
+            this.fingerprint = fingerprint;
+        }
+    }
 }
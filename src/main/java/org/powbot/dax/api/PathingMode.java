@@ -0,0 +1,23 @@
+package org.powbot.dax.api;
+
+/**
+ * Where bulk path requests are answered.
+ */
+public enum PathingMode {
+    /**
+     * walker.dax.cloud only.
+     */
+    REMOTE_ONLY,
+    /**
+     * Remote server, the local world graph when the server is rate limited or unreachable.
+     */
+    REMOTE_FIRST,
+    /**
+     * Local world graph, the remote server when no local path is found.
+     */
+    LOCAL_FIRST,
+    /**
+     * Local world graph only.
+     */
+    LOCAL_ONLY
+}
@@ -0,0 +1,76 @@
+package org.powbot.dax.api;
+
+import org.powbot.api.Locatable;
+import org.powbot.api.Tile;
+import org.powbot.api.rt4.Item;
+import org.powbot.dax.api.cache.PathRequestKey;
+import org.powbot.dax.api.models.IntPair;
+import org.powbot.dax.teleports.TeleportIndex;
+
+import java.util.*;
+
+/**
+ * Ordered destinations a script walks between in a loop, e.g. bank -> resource area -> bank.
+ * Leg i starts at the previous destination and ends at destination i, the first leg starts at the last destination.
+ */
+public class RoutePlan {
+
+    private final List<Tile> destinations;
+
+    public RoutePlan(List<? extends Locatable> destinations) {
+        List<Tile> tiles = new ArrayList<>();
+        for (Locatable destination : destinations) {
+            tiles.add(destination.tile());
+        }
+        this.destinations = Collections.unmodifiableList(tiles);
+    }
+
+    public List<Tile> getDestinations() {
+        return destinations;
+    }
+
+    public int size() {
+        return destinations.size();
+    }
+
+    public boolean contains(Tile destination) {
+        return destinations.contains(destination);
+    }
+
+    /**
+     * @param index
+     * @return start of the leg ending at destination index.
+     */
+    public Tile getLegStart(int index) {
+        return destinations.get((index - 1 + destinations.size()) % destinations.size());
+    }
+
+    /**
+     * Fingerprint of the items that decide which teleports and transports a path may use: teleport items, the
+     * {@link PathRequestKey#COUNTED_ITEMS} and {@link PathRequestKey#TRANSPORT_ITEMS}. Other items, like the ones gathered between
+     * bank and resource area, do not change it. Stacks are keyed as in {@link PathRequestKey}.
+     *
+     * @param inventory
+     * @param equipment
+     * @return fingerprint of inventory and equipment.
+     */
+    public static String fingerprint(List<Item> inventory, List<Item> equipment) {
+        return PathRequestKey.ofItems(getRelevant(inventory), getRelevant(equipment));
+    }
+
+    private static List<IntPair> getRelevant(List<Item> items) {
+        List<IntPair> relevant = new ArrayList<>();
+        for (Item item : items) {
+            if (PathRequestKey.COUNTED_ITEMS.contains(item.id()) || PathRequestKey.TRANSPORT_ITEMS.contains(item.id())
+                    || TeleportIndex.isTeleportItem(item)) {
+                relevant.add(new IntPair(item.id(), item.getStack()));
+            }
+        }
+        return relevant;
+    }
+
+    @Override
+    public String toString() {
+        return "RoutePlan" + destinations;
+    }
+}
@@ -1,28 +1,37 @@
 package org.powbot.dax.api;
 
 import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonParser;
-import com.google.gson.JsonSyntaxException;
-import com.google.gson.reflect.TypeToken;
+import org.powbot.dax.api.cache.CacheStats;
+import org.powbot.dax.api.cache.PathRequestKey;
+import org.powbot.dax.api.cache.ResponseCache;
 import org.powbot.dax.api.json.Json;
 import org.powbot.dax.api.json.JsonValue;
 import org.powbot.dax.api.json.ParseException;
 import org.powbot.dax.api.models.*;
+import org.powbot.dax.api.utils.Backoff;
+import org.powbot.dax.api.utils.CircuitBreaker;
+import org.powbot.dax.api.utils.EndpointMetrics;
+import org.powbot.dax.api.utils.PathRequestCoalescer;
 import org.powbot.dax.engine.Loggable;
+import org.powbot.dax.engine.global.GlobalPathFinder;
 import org.powbot.mobile.service.DaxProxyService;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.net.HttpURLConnection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 public class WebWalkerServerApi implements Loggable {
 
     private static WebWalkerServerApi webWalkerServerApi;
-    private static Gson gson = new Gson();
+    private static Gson gson = new GsonBuilder().registerTypeAdapterFactory(new PlayerDetails.JsonAdapterFactory()).create();
 
     public static WebWalkerServerApi getInstance() {
         return webWalkerServerApi != null ? webWalkerServerApi : (webWalkerServerApi = new WebWalkerServerApi());
@@ -32,32 +41,160 @@ public class WebWalkerServerApi implements Loggable {
 
     private static final String
             GENERATE_PATH = "/walker/generatePath",
-            GENERATE_BANK_PATH = "/walker/generateBankPath";
-
-
-    private HashMap<String, String> cache;
+            GENERATE_BANK_PATH = "/walker/generateBankPath",
+            GENERATE_PATHS = "/walker/generatePaths",
+            GENERATE_BANK_PATHS = "/walker/generateBankPaths";
+
+    private static final int CACHE_MAX_ENTRIES = 256;
+    private static final long CACHE_MAX_BYTES = 16 * 1024 * 1024, CACHE_TTL_MINUTES = 30;
+    private static final int MAX_ATTEMPTS = 3, BREAKER_FAILURE_THRESHOLD = 5;
+    private static final long RETRY_BASE_DELAY = 500, RETRY_MAX_DELAY = 8000, BREAKER_OPEN_DURATION = 30000;
+
+
+    private final ResponseCache cache;
+    private final PathRequestCoalescer<PathRequestPair> pathCoalescer;
+    private final PathRequestCoalescer<BankPathRequestPair> bankPathCoalescer;
+    private final Backoff backoff;
+    private final CircuitBreaker circuitBreaker;
+    private final ConcurrentHashMap<String, EndpointMetrics> metrics;
     private boolean isTestMode;
+    private PathingMode pathingMode = PathingMode.REMOTE_ONLY;
 
     private WebWalkerServerApi() {
-        cache = new HashMap<>();
+        cache = new ResponseCache(CACHE_MAX_ENTRIES, CACHE_MAX_BYTES, CACHE_TTL_MINUTES, TimeUnit.MINUTES);
+        pathCoalescer = new PathRequestCoalescer<>((player, pairs) ->
+                send(gson.toJson(new BulkPathRequest(player, pairs)), WALKER_ENDPOINT + GENERATE_PATHS));
+        bankPathCoalescer = new PathRequestCoalescer<>((player, pairs) ->
+                send(gson.toJson(new BulkBankPathRequest(player, pairs)), WALKER_ENDPOINT + GENERATE_BANK_PATHS));
+        backoff = new Backoff(MAX_ATTEMPTS, RETRY_BASE_DELAY, RETRY_MAX_DELAY);
+        circuitBreaker = new CircuitBreaker(BREAKER_FAILURE_THRESHOLD, BREAKER_OPEN_DURATION);
+        metrics = new ConcurrentHashMap<>();
     }
 
     public List<PathResult> getPaths(BulkPathRequest bulkPathRequest) {
-        try {
-            return parseResults(post(gson.toJson(bulkPathRequest),WALKER_ENDPOINT + "/walker/generatePaths"));
-        } catch(IOException|UncheckedIOException e){
-            getInstance().log("Is server down? Spam dax.");
-            return Collections.singletonList(new PathResult(PathStatus.NO_RESPONSE_FROM_SERVER));
+        switch (pathingMode) {
+            case LOCAL_ONLY:
+                return getLocalPaths(bulkPathRequest);
+            case LOCAL_FIRST:
+                List<PathResult> localResults = getLocalPaths(bulkPathRequest);
+                return hasSuccess(localResults) ? localResults : getRemotePaths(bulkPathRequest);
+            case REMOTE_FIRST:
+                if (circuitBreaker.isOpen() && GlobalPathFinder.getInstance().isLoaded()) {
+                    return getLocalPaths(bulkPathRequest);
+                }
+                List<PathResult> remoteResults = getRemotePaths(bulkPathRequest);
+                if (isServerUnavailable(remoteResults) && GlobalPathFinder.getInstance().isLoaded()) {
+                    log("Walker server unavailable, falling back to local pathfinding.");
+                    return getLocalPaths(bulkPathRequest);
+                }
+                return remoteResults;
+            default:
+                return getRemotePaths(bulkPathRequest);
         }
     }
 
     public List<PathResult> getBankPaths(BulkBankPathRequest bulkBankPathRequest) {
+        switch (pathingMode) {
+            case LOCAL_ONLY:
+                return getLocalBankPaths(bulkBankPathRequest);
+            case LOCAL_FIRST:
+                List<PathResult> localResults = getLocalBankPaths(bulkBankPathRequest);
+                return hasSuccess(localResults) ? localResults : getRemoteBankPaths(bulkBankPathRequest);
+            case REMOTE_FIRST:
+                if (circuitBreaker.isOpen() && GlobalPathFinder.getInstance().isLoaded()) {
+                    return getLocalBankPaths(bulkBankPathRequest);
+                }
+                List<PathResult> remoteResults = getRemoteBankPaths(bulkBankPathRequest);
+                if (isServerUnavailable(remoteResults) && GlobalPathFinder.getInstance().isLoaded()) {
+                    log("Walker server unavailable, falling back to local pathfinding.");
+                    return getLocalBankPaths(bulkBankPathRequest);
+                }
+                return remoteResults;
+            default:
+                return getRemoteBankPaths(bulkBankPathRequest);
+        }
+    }
+
+    private List<PathResult> getRemotePaths(BulkPathRequest bulkPathRequest) {
+        return getRemotePaths(pathCoalescer, WALKER_ENDPOINT + GENERATE_PATHS + PathRequestKey.of(bulkPathRequest),
+                bulkPathRequest.getPlayer(), bulkPathRequest.getRequests());
+    }
+
+    private List<PathResult> getRemoteBankPaths(BulkBankPathRequest bulkBankPathRequest) {
+        return getRemotePaths(bankPathCoalescer, WALKER_ENDPOINT + GENERATE_BANK_PATHS + PathRequestKey.of(bulkBankPathRequest),
+                bulkBankPathRequest.getPlayer(), bulkBankPathRequest.getRequests());
+    }
+
+    /**
+     * Answers from the cache, otherwise through the coalescer so concurrent callers share requests. Results are cached
+     * per caller, so a batched response also serves later identical requests. The coalescer is given the exact request
+     * rather than the cache key, it must not hand one caller's response to another player.
+     */
+    private <P> List<PathResult> getRemotePaths(PathRequestCoalescer<P> coalescer, String cacheKey, PlayerDetails player, List<P> pairs) {
+        String cached = cache.get(cacheKey);
+        if (cached != null) {
+            return parseResults(new ServerResponse(true, HttpURLConnection.HTTP_OK, cached));
+        }
+        String requestKey = (player != null ? player.getJson() : "null") + gson.toJson(pairs);
+        List<PathResult> pathResults;
         try {
-            return parseResults(post(gson.toJson(bulkBankPathRequest),WALKER_ENDPOINT + "/walker/generateBankPaths"));
-        } catch(IOException|UncheckedIOException e){
+            pathResults = coalescer.request(requestKey, player, pairs);
+        } catch (UncheckedIOException e) {
             getInstance().log("Is server down? Spam dax.");
             return Collections.singletonList(new PathResult(PathStatus.NO_RESPONSE_FROM_SERVER));
         }
+        if (pathResults.size() == pairs.size() && pathResults.stream().noneMatch(WebWalkerServerApi::isFailure)) {
+            cache.put(cacheKey, PathResultCodec.encode(pathResults));
+        }
+        return pathResults;
+    }
+
+    private List<PathResult> send(String json, String endpoint) {
+        try {
+            return parseResults(post(json, endpoint, null));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<PathResult> getLocalPaths(BulkPathRequest bulkPathRequest) {
+        if (!GlobalPathFinder.getInstance().isLoaded()) {
+            log("No local world graph loaded.");
+            return Collections.singletonList(new PathResult(PathStatus.UNMAPPED_REGION));
+        }
+        return GlobalPathFinder.getInstance().getPaths(bulkPathRequest);
+    }
+
+    private List<PathResult> getLocalBankPaths(BulkBankPathRequest bulkBankPathRequest) {
+        if (!GlobalPathFinder.getInstance().isLoaded()) {
+            log("No local world graph loaded.");
+            return Collections.singletonList(new PathResult(PathStatus.UNMAPPED_REGION));
+        }
+        return GlobalPathFinder.getInstance().getBankPaths(bulkBankPathRequest);
+    }
+
+    private static boolean hasSuccess(List<PathResult> pathResults) {
+        return pathResults.stream().anyMatch(pathResult -> pathResult.getPathStatus() == PathStatus.SUCCESS);
+    }
+
+    private static boolean isFailure(PathResult pathResult) {
+        if (pathResult.getPathStatus() == null) {
+            return true;
+        }
+        switch (pathResult.getPathStatus()) {
+            case RATE_LIMIT_EXCEEDED:
+            case NO_RESPONSE_FROM_SERVER:
+            case INVALID_CREDENTIALS:
+            case UNKNOWN:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isServerUnavailable(List<PathResult> pathResults) {
+        return pathResults.size() == 1 && (pathResults.get(0).getPathStatus() == PathStatus.RATE_LIMIT_EXCEEDED
+                || pathResults.get(0).getPathStatus() == PathStatus.NO_RESPONSE_FROM_SERVER);
     }
 
     public PathResult getPath(Point3D start, Point3D end, PlayerDetails playerDetails) {
@@ -107,6 +244,41 @@ public class WebWalkerServerApi implements Loggable {
         isTestMode = testMode;
     }
 
+    public PathingMode getPathingMode() {
+        return pathingMode;
+    }
+
+    public void setPathingMode(PathingMode pathingMode) {
+        this.pathingMode = pathingMode;
+    }
+
+    public ResponseCache getCache() {
+        return cache;
+    }
+
+    public CacheStats getCacheStats() {
+        return cache.getStats();
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * @return metrics per endpoint path, e.g. {@code /walker/generatePaths}.
+     */
+    public Map<String, EndpointMetrics> getMetrics() {
+        return Collections.unmodifiableMap(metrics);
+    }
+
+    public PathRequestCoalescer<PathRequestPair> getPathCoalescer() {
+        return pathCoalescer;
+    }
+
+    public PathRequestCoalescer<BankPathRequestPair> getBankPathCoalescer() {
+        return bankPathCoalescer;
+    }
+
     private List<PathResult> parseResults(ServerResponse serverResponse){
         if (!serverResponse.isSuccess()) {
             JsonValue jsonValue  = null;
@@ -125,6 +297,10 @@ public class WebWalkerServerApi implements Loggable {
             switch (serverResponse.getCode()) {
                 case 502:
                     log("Error: HTTP 502 from cloudflare.  This is an issue with the powbot proxy service.");
+                    return Collections.singletonList(new PathResult(PathStatus.NO_RESPONSE_FROM_SERVER));
+                case -1:
+                case 503:
+                    return Collections.singletonList(new PathResult(PathStatus.NO_RESPONSE_FROM_SERVER));
                 case 429:
                     return Collections.singletonList(new PathResult(PathStatus.RATE_LIMIT_EXCEEDED));
                 case 400:
@@ -134,13 +310,18 @@ public class WebWalkerServerApi implements Loggable {
             }
         }
 
+        List<PathResult> pathResults;
         try {
-            return gson.fromJson(serverResponse.getContents(), new TypeToken<List<PathResult>>() {}.getType());
-        } catch (ParseException| JsonSyntaxException e) {
+            pathResults = PathResultCodec.decode(serverResponse.getContents());
+        } catch (ParseException | NumberFormatException e) {
+            pathResults = null;
+        }
+        if (pathResults == null) {
             PathResult pathResult = new PathResult(PathStatus.UNKNOWN);
             log("Error: " + pathResult.getPathStatus());
             return Collections.singletonList(pathResult);
         }
+        return pathResults;
     }
 
     private PathResult parseResult(ServerResponse serverResponse) {
@@ -159,6 +340,10 @@ public class WebWalkerServerApi implements Loggable {
             }
 
             switch (serverResponse.getCode()) {
+                case -1:
+                case 502:
+                case 503:
+                    return new PathResult(PathStatus.NO_RESPONSE_FROM_SERVER);
                 case 429:
                     return new PathResult(PathStatus.RATE_LIMIT_EXCEEDED);
                 case 400:
@@ -188,22 +373,73 @@ public class WebWalkerServerApi implements Loggable {
     }
 
     private ServerResponse post(String json, String endpoint) throws IOException {
+        return post(json, endpoint, json);
+    }
+
+    /**
+     * @param cacheKey null to bypass the response cache
+     */
+    private ServerResponse post(String json, String endpoint, String cacheKey) throws IOException {
         getInstance().log("Generating path: " + json);
-        if (cache.containsKey(json)) {
-            return new ServerResponse(true, HttpURLConnection.HTTP_OK, cache.get(json.toString()));
+        if (cacheKey != null) {
+            cacheKey = endpoint + cacheKey;
+            String cached = cache.get(cacheKey);
+            if (cached != null) {
+                return new ServerResponse(true, HttpURLConnection.HTTP_OK, cached);
+            }
         }
 
-       String resp = DaxProxyService.INSTANCE.executePostRequest(endpoint, json);
-
+        String resp = execute(json, endpoint);
         if (resp == null) {
-            return new ServerResponse(false, -1, null);
+            return new ServerResponse(false, circuitBreaker.isOpen() ? HttpURLConnection.HTTP_UNAVAILABLE : -1, null);
         }
 
-        cache.put(json, resp);
+        if (cacheKey != null) {
+            cache.put(cacheKey, resp);
+        }
 
         return new ServerResponse(true, HttpURLConnection.HTTP_OK, resp);
     }
 
+    /**
+     * Sends the request through the circuit breaker, retrying failures with jittered exponential backoff.
+     *
+     * @return response body or null if every attempt failed or the breaker is open.
+     */
+    private String execute(String json, String endpoint) {
+        EndpointMetrics endpointMetrics = metrics.computeIfAbsent(getPath(endpoint), EndpointMetrics::new);
+        for (int attempt = 0; attempt < backoff.getMaxAttempts(); attempt++) {
+            if (!circuitBreaker.allowRequest()) {
+                endpointMetrics.recordRejected();
+                log(Level.WARNING, "Walker server circuit open, skipping request.");
+                return null;
+            }
+            long start = System.currentTimeMillis();
+            String resp;
+            try {
+                resp = DaxProxyService.INSTANCE.executePostRequest(endpoint, json);
+            } catch (Exception e) {
+                resp = null;
+            }
+            endpointMetrics.record(System.currentTimeMillis() - start, resp != null);
+            if (resp != null) {
+                circuitBreaker.recordSuccess();
+                return resp;
+            }
+            circuitBreaker.recordFailure();
+            if (attempt + 1 < backoff.getMaxAttempts() && !backoff.await(attempt)) {
+                break;
+            }
+        }
+        return null;
+    }
+
+    private static String getPath(String endpoint) {
+        int host = endpoint.indexOf("//");
+        int path = endpoint.indexOf('/', host == -1 ? 0 : host + 2);
+        return path == -1 ? endpoint : endpoint.substring(path);
+    }
+
 
     @Override
     public String getName() {
@@ -0,0 +1,156 @@
+package org.powbot.dax.api.cache;
+
+import org.powbot.dax.api.models.*;
+import org.powbot.dax.teleports.TeleportIndex;
+
+import java.util.*;
+
+/**
+ * Canonical cache keys for path requests. Only the parts of a request that can change the generated route
+ * are included, so two requests that would produce the same paths map to the same key.
+ *
+ * Only items a route can use are keyed, see {@link #isRouteItem(int)}, so picking up or eating other items does not
+ * invalidate cached paths. Their stacks are merged per id and bucketed by power of two, stacks of {@link #COUNTED_ITEMS}
+ * are kept exact, a charter or spell needs a minimum amount of them. Settings and varbits are limited to the ones
+ * requirements are read from, {@link PlayerDetails#isRequirementSetting(int)}. Start and end tiles are kept exact, a
+ * path from a nearby tile may start behind a wall.
+ */
+public class PathRequestKey {
+
+    /**
+     * Items transports and teleports need a minimum amount of: coins, trading sticks, ecto-tokens and runes.
+     */
+    public static final Set<Integer> COUNTED_ITEMS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            995, 6306, 4278,
+            554, 555, 556, 557, 558, 559, 560, 561, 562, 563, 564, 565, 566, 9075, 21880,
+            4694, 4695, 4696, 4697, 4698, 4699
+    )));
+
+    /**
+     * Items transports need besides teleports and counted items, the dramen and lunar staff for fairy rings.
+     */
+    public static final Set<Integer> TRANSPORT_ITEMS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(772, 9084)));
+
+    /**
+     * @return whether the item can change a route: a counted item, a transport item or a teleport item. Ids
+     * {@link TeleportIndex} has not seen yet count as route items.
+     */
+    public static boolean isRouteItem(int id) {
+        return COUNTED_ITEMS.contains(id) || TRANSPORT_ITEMS.contains(id) || TeleportIndex.isTeleportItem(id);
+    }
+
+    public static String of(BulkPathRequest bulkPathRequest) {
+        StringBuilder builder = new StringBuilder(256);
+        appendPlayer(builder, bulkPathRequest.getPlayer());
+        builder.append("|r");
+        for (PathRequestPair pair : bulkPathRequest.getRequests()) {
+            builder.append(';');
+            appendPoint(builder, pair.getStart());
+            builder.append('>');
+            appendPoint(builder, pair.getEnd());
+        }
+        return builder.toString();
+    }
+
+    public static String of(BulkBankPathRequest bulkBankPathRequest) {
+        StringBuilder builder = new StringBuilder(256);
+        appendPlayer(builder, bulkBankPathRequest.getPlayer());
+        builder.append("|b");
+        for (BankPathRequestPair pair : bulkBankPathRequest.getRequests()) {
+            builder.append(';');
+            appendPoint(builder, pair.getStart());
+            builder.append('>').append(pair.getBank());
+        }
+        return builder.toString();
+    }
+
+    /**
+     * @param playerDetails
+     * @return key of the route relevant player state only.
+     */
+    public static String of(PlayerDetails playerDetails) {
+        StringBuilder builder = new StringBuilder(192);
+        appendPlayer(builder, playerDetails);
+        return builder.toString();
+    }
+
+    /**
+     * @return key of the route items alone, stacks bucketed as in a request key.
+     */
+    public static String ofItems(List<IntPair> inventory, List<IntPair> equipment) {
+        StringBuilder builder = new StringBuilder(64);
+        builder.append("e");
+        appendItems(builder, equipment);
+        builder.append("|i");
+        appendItems(builder, inventory);
+        return builder.toString();
+    }
+
+    private static void appendPlayer(StringBuilder builder, PlayerDetails player) {
+        if (player == null) {
+            builder.append("null");
+            return;
+        }
+        builder.append(player.getAttack()).append(',').append(player.getDefence()).append(',')
+                .append(player.getStrength()).append(',').append(player.getHitpoints()).append(',')
+                .append(player.getRanged()).append(',').append(player.getPrayer()).append(',')
+                .append(player.getMagic()).append(',').append(player.getCooking()).append(',')
+                .append(player.getWoodcutting()).append(',').append(player.getFletching()).append(',')
+                .append(player.getFishing()).append(',').append(player.getFiremaking()).append(',')
+                .append(player.getCrafting()).append(',').append(player.getSmithing()).append(',')
+                .append(player.getMining()).append(',').append(player.getHerblore()).append(',')
+                .append(player.getAgility()).append(',').append(player.getThieving()).append(',')
+                .append(player.getSlayer()).append(',').append(player.getFarming()).append(',')
+                .append(player.getRunecrafting()).append(',').append(player.getHunter()).append(',')
+                .append(player.getConstruction());
+        builder.append("|m").append(player.isMember() ? 1 : 0);
+        builder.append("|s");
+        appendValues(builder, player.getSetting(), true);
+        builder.append("|v");
+        appendValues(builder, player.getVarbit(), false);
+        builder.append("|e");
+        appendItems(builder, player.getEquipment());
+        builder.append("|i");
+        appendItems(builder, player.getInventory());
+    }
+
+    private static void appendValues(StringBuilder builder, List<IntPair> values, boolean settings) {
+        if (values == null) {
+            return;
+        }
+        TreeMap<Integer, Integer> sorted = new TreeMap<>();
+        for (IntPair pair : values) {
+            if (settings ? PlayerDetails.isRequirementSetting(pair.getKey()) : PlayerDetails.isRequirementVarbit(pair.getKey())) {
+                sorted.put(pair.getKey(), pair.getValue());
+            }
+        }
+        sorted.forEach((key, value) -> builder.append(key).append('=').append(value).append(','));
+    }
+
+    private static void appendItems(StringBuilder builder, List<IntPair> items) {
+        if (items == null) {
+            return;
+        }
+        TreeMap<Integer, Long> counts = new TreeMap<>();
+        for (IntPair item : items) {
+            if (item.getKey() <= 0 || !isRouteItem(item.getKey())) {
+                continue;
+            }
+            counts.merge(item.getKey(), (long) Math.max(item.getValue(), 1), Long::sum);
+        }
+        counts.forEach((id, count) -> builder.append(id).append('x').append(COUNTED_ITEMS.contains(id) ? count : bucket(count)).append(','));
+    }
+
+    private static int bucket(long count) {
+        return 64 - Long.numberOfLeadingZeros(count);
+    }
+
+    private static void appendPoint(StringBuilder builder, Point3D point) {
+        if (point == null) {
+            builder.append("null");
+            return;
+        }
+        builder.append(point.getX()).append(',').append(point.getY()).append(',').append(point.getZ());
+    }
+
+}
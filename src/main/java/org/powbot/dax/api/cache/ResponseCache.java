@@ -0,0 +1,152 @@
+package org.powbot.dax.api.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread safe LRU cache for raw walker server responses. Bounded by entry count and by an estimate
+ * of the retained bytes, entries expire after their time to live.
+ */
+public class ResponseCache {
+
+    private static final int ENTRY_OVERHEAD = 64;
+
+    private final LinkedHashMap<String, Entry> entries;
+    private final AtomicLong hits, misses, evictions, expirations;
+
+    private int maxEntries;
+    private long maxBytes, defaultTtl, bytes;
+
+    public ResponseCache(int maxEntries, long maxBytes, long defaultTtl, TimeUnit timeUnit) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.hits = new AtomicLong();
+        this.misses = new AtomicLong();
+        this.evictions = new AtomicLong();
+        this.expirations = new AtomicLong();
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.defaultTtl = timeUnit.toMillis(defaultTtl);
+    }
+
+    /**
+     * @param key
+     * @return cached response or null if not present or expired.
+     */
+    public synchronized String get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (entry.isExpired(System.currentTimeMillis())) {
+            remove(key, entry);
+            expirations.incrementAndGet();
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.value;
+    }
+
+    public void put(String key, String value) {
+        put(key, value, defaultTtl, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void put(String key, String value, long ttl, TimeUnit timeUnit) {
+        Entry previous = entries.remove(key);
+        if (previous != null) {
+            bytes -= previous.size;
+        }
+        Entry entry = new Entry(value, sizeOf(key, value), System.currentTimeMillis() + timeUnit.toMillis(ttl));
+        if (entry.size > maxBytes) {
+            return;
+        }
+        entries.put(key, entry);
+        bytes += entry.size;
+        evict();
+    }
+
+    public synchronized void invalidate(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            remove(key, entry);
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    /**
+     * Drops every expired entry. Expired entries are otherwise only removed when looked up or evicted.
+     */
+    public synchronized void purgeExpired() {
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next().getValue();
+            if (entry.isExpired(now)) {
+                iterator.remove();
+                bytes -= entry.size;
+                expirations.incrementAndGet();
+            }
+        }
+    }
+
+    public synchronized void setLimits(int maxEntries, long maxBytes) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        evict();
+    }
+
+    public synchronized void setDefaultTtl(long defaultTtl, TimeUnit timeUnit) {
+        this.defaultTtl = timeUnit.toMillis(defaultTtl);
+    }
+
+    public synchronized CacheStats getStats() {
+        return new CacheStats(hits.get(), misses.get(), evictions.get(), expirations.get(), entries.size(), bytes);
+    }
+
+    private void evict() {
+        if (entries.size() <= maxEntries && bytes <= maxBytes) {
+            return;
+        }
+        purgeExpired();
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || bytes > maxBytes) && iterator.hasNext()) {
+            Entry entry = iterator.next().getValue();
+            iterator.remove();
+            bytes -= entry.size;
+            evictions.incrementAndGet();
+        }
+    }
+
+    private void remove(String key, Entry entry) {
+        entries.remove(key);
+        bytes -= entry.size;
+    }
+
+    private static long sizeOf(String key, String value) {
+        return ENTRY_OVERHEAD + 2L * (key.length() + (value != null ? value.length() : 0));
+    }
+
+    private static class Entry {
+        private final String value;
+        private final long size, expiresAt;
+
+        private Entry(String value, long size, long expiresAt) {
+            this.value = value;
+            this.size = size;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+
+}
@@ -6,6 +6,7 @@ import com.google.gson.JsonElement;
 import org.powbot.api.Tile;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 
@@ -21,6 +22,11 @@ public class PathResult {
     //@DoNotRename
     private int cost;
 
+    /**
+     * Path as consecutive x, y, z triples, set by {@link PathResultCodec}. {@link #path} is built from it on demand.
+     */
+    private transient int[] packedPath;
+
     private PathResult () {
 
     }
@@ -35,6 +41,12 @@ public class PathResult {
         this.cost = cost;
     }
 
+    public PathResult(PathStatus pathStatus, int[] packedPath, int cost) {
+        this.pathStatus = pathStatus;
+        this.packedPath = packedPath;
+        this.cost = cost;
+    }
+
     public PathStatus getPathStatus() {
         return pathStatus;
     }
@@ -44,11 +56,49 @@ public class PathResult {
     }
 
     public List<Point3D> getPath() {
+        if (path == null && packedPath != null) {
+            List<Point3D> points = new ArrayList<>(packedPath.length / 3);
+            for (int i = 0; i < packedPath.length; i += 3) {
+                points.add(new Point3D(packedPath[i], packedPath[i + 1], packedPath[i + 2]));
+            }
+            path = points;
+        }
         return path;
     }
 
     public void setPath(List<Point3D> path) {
         this.path = path;
+        this.packedPath = null;
+    }
+
+    /**
+     * @return path as consecutive x, y, z triples, null if there is no path.
+     */
+    public int[] getPackedPath() {
+        if (packedPath == null && path != null) {
+            int[] packed = new int[path.size() * 3];
+            for (int i = 0; i < path.size(); i++) {
+                Point3D point3D = path.get(i);
+                packed[i * 3] = point3D.getX();
+                packed[i * 3 + 1] = point3D.getY();
+                packed[i * 3 + 2] = point3D.getZ();
+            }
+            packedPath = packed;
+        }
+        return packedPath;
+    }
+
+    public int getPathLength() {
+        int[] packed = getPackedPath();
+        return packed != null ? packed.length / 3 : 0;
+    }
+
+    /**
+     * @return first tile of the path, null if there is no path.
+     */
+    public Tile getStartTile() {
+        int[] packed = getPackedPath();
+        return packed != null && packed.length >= 3 ? new Tile(packed[0], packed[1], packed[2]) : null;
     }
 
     public int getCost() {
@@ -60,12 +110,13 @@ public class PathResult {
     }
 
     public List<Tile> toRSTilePath() {
-        if (getPath() == null) {
+        int[] packed = getPackedPath();
+        if (packed == null) {
             return new ArrayList<>();
         }
-        List<Tile> path = new ArrayList<>();
-        for (Point3D point3D : getPath()) {
-            path.add(point3D.toTile());
+        List<Tile> path = new ArrayList<>(packed.length / 3);
+        for (int i = 0; i < packed.length; i += 3) {
+            path.add(new Tile(packed[i], packed[i + 1], packed[i + 2]));
         }
         return path;
     }
@@ -77,12 +128,12 @@ public class PathResult {
         PathResult that = (PathResult) o;
         return cost == that.cost &&
                 pathStatus == that.pathStatus &&
-                Objects.equals(path, that.path);
+                Arrays.equals(getPackedPath(), that.getPackedPath());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(pathStatus, path, cost);
+        return Objects.hash(pathStatus, Arrays.hashCode(getPackedPath()), cost);
     }
 
     public static PathResult fromJson(JsonElement jsonObject) {
@@ -0,0 +1,169 @@
+package org.powbot.dax.api.models;
+
+import org.powbot.dax.api.json.JsonHandler;
+import org.powbot.dax.api.json.JsonParser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Streaming codec for bulk path responses, {@code [{"pathStatus": ..., "path": [{"x": .., "y": .., "z": ..}, ..], "cost": ..}, ..]}.
+ *
+ * Paths are read straight into packed x, y, z int arrays, see {@link PathResult#getPackedPath()}. Paths of results that
+ * are not {@link PathStatus#SUCCESS} are dropped while parsing, their coordinates only ever touch a reused buffer.
+ */
+public class PathResultCodec {
+
+    /**
+     * @param json response body
+     * @return decoded results, null if the body is not a json array.
+     * @throws org.powbot.dax.api.json.ParseException if the body is not valid json
+     */
+    public static List<PathResult> decode(String json) {
+        Handler handler = new Handler();
+        new JsonParser(handler).parse(json);
+        return handler.isArray ? handler.results : null;
+    }
+
+    /**
+     * @return json of the results in the server format, read back by {@link #decode(String)}.
+     */
+    public static String encode(List<PathResult> pathResults) {
+        StringBuilder builder = new StringBuilder(64 + pathResults.size() * 256);
+        builder.append('[');
+        for (int i = 0; i < pathResults.size(); i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            PathResult pathResult = pathResults.get(i);
+            builder.append('{');
+            if (pathResult.getPathStatus() != null) {
+                builder.append("\"pathStatus\":\"").append(pathResult.getPathStatus().name()).append("\",");
+            }
+            int[] packedPath = pathResult.getPackedPath();
+            if (packedPath != null) {
+                builder.append("\"path\":[");
+                for (int j = 0; j < packedPath.length; j += 3) {
+                    if (j > 0) {
+                        builder.append(',');
+                    }
+                    builder.append("{\"x\":").append(packedPath[j])
+                            .append(",\"y\":").append(packedPath[j + 1])
+                            .append(",\"z\":").append(packedPath[j + 2]).append('}');
+                }
+                builder.append("],");
+            }
+            builder.append("\"cost\":").append(pathResult.getCost()).append('}');
+        }
+        return builder.append(']').toString();
+    }
+
+    /**
+     * Depth 1 is the results array, 2 a result, 3 its path array and 4 a point.
+     */
+    private static class Handler extends JsonHandler<Object, Object> {
+
+        private final List<PathResult> results = new ArrayList<>();
+        private boolean isArray;
+        private int depth;
+        private String resultField, pointField;
+
+        private PathStatus pathStatus;
+        private int cost;
+        private boolean hasPath, inPath;
+        private int[] buffer = new int[3 * 256];
+        private int size;
+        private int x, y, z;
+
+        @Override
+        public Object startArray() {
+            if (++depth == 1) {
+                isArray = true;
+            } else if (depth == 3 && "path".equals(resultField)) {
+                hasPath = inPath = true;
+            }
+            return null;
+        }
+
+        @Override
+        public void endArray(Object array) {
+            if (depth == 3) {
+                inPath = false;
+            }
+            depth--;
+        }
+
+        @Override
+        public Object startObject() {
+            if (++depth == 2) {
+                resultField = null;
+                pathStatus = null;
+                cost = 0;
+                hasPath = false;
+                size = 0;
+            } else if (depth == 4) {
+                pointField = null;
+                x = y = z = 0;
+            }
+            return null;
+        }
+
+        @Override
+        public void startObjectValue(Object object, String name) {
+            if (depth == 2) {
+                resultField = name;
+            } else if (depth == 4) {
+                pointField = name;
+            }
+        }
+
+        @Override
+        public void endObject(Object object) {
+            if (depth == 4 && inPath) {
+                if (size + 3 > buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+                buffer[size++] = x;
+                buffer[size++] = y;
+                buffer[size++] = z;
+            } else if (depth == 2 && isArray) {
+                int[] packedPath = hasPath && pathStatus == PathStatus.SUCCESS ? Arrays.copyOf(buffer, size) : null;
+                results.add(new PathResult(pathStatus, packedPath, cost));
+            }
+            depth--;
+        }
+
+        @Override
+        public void endNumber(String string) {
+            if (depth == 2 && "cost".equals(resultField)) {
+                cost = (int) Double.parseDouble(string);
+            } else if (depth == 4 && inPath && pointField != null) {
+                int value = Integer.parseInt(string);
+                switch (pointField) {
+                    case "x":
+                        x = value;
+                        break;
+                    case "y":
+                        y = value;
+                        break;
+                    case "z":
+                        z = value;
+                        break;
+                }
+            }
+        }
+
+        @Override
+        public void endString(String string) {
+            if (depth == 2 && "pathStatus".equals(resultField)) {
+                try {
+                    pathStatus = PathStatus.valueOf(string);
+                } catch (IllegalArgumentException e) {
+                    pathStatus = PathStatus.UNKNOWN;
+                }
+            }
+        }
+    }
+
+}
@@ -1,105 +1,187 @@
 package org.powbot.dax.api.models;
 
-import com.google.gson.Gson;
-import com.google.gson.JsonElement;
+import com.google.gson.*;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 import org.powbot.api.rt4.Item;
 import org.powbot.api.rt4.Skills;
-import org.powbot.api.rt4.Varpbits;
 import org.powbot.api.rt4.Worlds;
 import org.powbot.api.rt4.walking.model.Skill;
+import org.powbot.dax.shared.helpers.VarpSnapshot;
+import org.powbot.dax.teleports.TeleportIndex;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 public class PlayerDetails {
 
-    public static PlayerDetails generate(List<Item> inventoryItems, List<Item> equipmentItems) {
-
-        List<IntPair> inventory = inventoryItems
-                .stream()
-                .map(rsItem -> new IntPair(rsItem.id(), rsItem.getStack())).collect(Collectors.toList());
-
-        List<IntPair> equipment = equipmentItems
-                .stream()
-                .map(rsItem -> new IntPair(rsItem.id(), rsItem.getStack())).collect(Collectors.toList());
-
-        List<IntPair> settings = Stream.of(10, 11, 17, 32, 63, 68, 71, 101, 111, 116, 131, 144, 145, 150, 165, 176,
+    private static final Skill[] SKILLS = {
+            Skill.Attack, Skill.Defence, Skill.Strength, Skill.Hitpoints, Skill.Ranged, Skill.Prayer, Skill.Magic,
+            Skill.Cooking, Skill.Woodcutting, Skill.Fletching, Skill.Fishing, Skill.Firemaking, Skill.Crafting,
+            Skill.Smithing, Skill.Mining, Skill.Herblore, Skill.Agility, Skill.Thieving, Skill.Slayer, Skill.Farming,
+            Skill.Runecrafting, Skill.Hunter, Skill.Construction
+    };
+
+    /**
+     * Names of the skill fields, in the order Gson writes them.
+     */
+    private static final String[] SKILL_FIELDS = {
+            "attack", "defence", "strength", "hitpoints", "ranged", "prayer", "magic", "cooking", "woodcutting",
+            "fletching", "fishing", "firemaking", "crafting", "smithing", "mining", "herblore", "agility", "thieving",
+            "slayer", "farming", "runecrafting", "hunter", "construction"
+    };
+
+    private static final int[] SETTINGS = {10, 11, 17, 32, 63, 68, 71, 101, 111, 116, 131, 144, 145, 150, 165, 176,
             179, 212, 273, 299, 302, 307, 314, 335, 347, 351, 365, 371, 387, 399, 425, 437, 440, 482, 622, 655, 671, 705, 794, 810,
-            869, 896, 964, 1630, 1671, 1672)
-                                       .map(value -> new IntPair(value, Varpbits.varpbit(value, true))).distinct().collect(Collectors.toList());
-
-        List<IntPair> varbit = Arrays.stream(new int[]{
-                192,
-                199,
-                357,
-                386,
-                1990,
-                2310,
-                2328,
-                2448,
-                3534,
-                3618, //dream mentor
-                3741,
-                4494, //fremmy elite diary status
-                4538,
-                4566,
-                4885,
-                4895,
-                4897,
-                5027,
-                5087,
-                5088,
-                5089,
-                5090,
-                5800, //fossil island- museum camp bank has been built if this is 1
-                5810,
-                6071,
-                6104,
-                7255,
-                7928, //kourend elite diary
-                9016,
-                10150, //we've paid 1m to Andras for free boat rides to Slepe if this is 1,
-                13719, //unlocked the 93 agility blood altar shortcut by mining the other side (78 mining req)
-                13738, // temple of the eye
-                13903, //Sleeping Giants quest
-        })
-                .mapToObj(value -> new IntPair(value, Varpbits.value(value, true))).distinct().collect(
-				        Collectors.toList());
-
-        boolean[] plantedSpiritTrees = {false, false, false, false, false};
-
-        return new PlayerDetails(
-                Skills.realLevel(Skill.Attack),
-                Skills.realLevel(Skill.Defence),
-                Skills.realLevel(Skill.Strength),
-                Skills.realLevel(Skill.Hitpoints),
-                Skills.realLevel(Skill.Ranged),
-                Skills.realLevel(Skill.Prayer),
-                Skills.realLevel(Skill.Magic),
-                Skills.realLevel(Skill.Cooking),
-                Skills.realLevel(Skill.Woodcutting),
-                Skills.realLevel(Skill.Fletching),
-                Skills.realLevel(Skill.Fishing),
-                Skills.realLevel(Skill.Firemaking),
-                Skills.realLevel(Skill.Crafting),
-                Skills.realLevel(Skill.Smithing),
-                Skills.realLevel(Skill.Mining),
-                Skills.realLevel(Skill.Herblore),
-                Skills.level(Skill.Agility),
-                Skills.realLevel(Skill.Thieving),
-                Skills.realLevel(Skill.Slayer),
-                Skills.realLevel(Skill.Farming),
-                Skills.realLevel(Skill.Runecrafting),
-                Skills.realLevel(Skill.Hunter),
-                Skills.realLevel(Skill.Construction),
-                settings,
-                varbit,
-                Worlds.isCurrentWorldMembers(),
-                equipment,
-                inventory
-        );
+            869, 896, 964, 1630, 1671, 1672};
+
+    private static final int[] VARBITS = {
+            192,
+            199,
+            357,
+            386,
+            1990,
+            2310,
+            2328,
+            2448,
+            3534,
+            3618, //dream mentor
+            3741,
+            4494, //fremmy elite diary status
+            4538,
+            4566,
+            4885,
+            4895,
+            4897,
+            5027,
+            5087,
+            5088,
+            5089,
+            5090,
+            5800, //fossil island- museum camp bank has been built if this is 1
+            5810,
+            6071,
+            6104,
+            7255,
+            7928, //kourend elite diary
+            9016,
+            10150, //we've paid 1m to Andras for free boat rides to Slepe if this is 1,
+            13719, //unlocked the 93 agility blood altar shortcut by mining the other side (78 mining req)
+            13738, // temple of the eye
+            13903, //Sleeping Giants quest
+    };
+
+    private static final Set<Integer> SETTING_IDS = Arrays.stream(SETTINGS).boxed().collect(Collectors.toSet()),
+            VARBIT_IDS = Arrays.stream(VARBITS).boxed().collect(Collectors.toSet());
+
+    /**
+     * Sections of the serialized form, in the order Gson writes the fields.
+     */
+    private static final int SKILLS_SECTION = 0, SETTING_SECTION = 1, VARBIT_SECTION = 2, MEMBER_SECTION = 3,
+            EQUIPMENT_SECTION = 4, INVENTORY_SECTION = 5, SECTIONS = 6;
+
+    private static PlayerDetails last;
+
+    /**
+     * Details of the player, patched from the previous ones. Sections that did not change are shared with the previous
+     * details together with their serialized fragment, the previous details are returned if nothing changed. Varps are
+     * only looked at again once the {@link VarpSnapshot} changed.
+     */
+    public static PlayerDetails generate(List<Item> inventoryItems, List<Item> equipmentItems) {
+        VarpSnapshot varps = VarpSnapshot.get();
+        int[] skills = new int[SKILLS.length];
+        for (int i = 0; i < SKILLS.length; i++) {
+            skills[i] = SKILLS[i] == Skill.Agility ? Skills.level(SKILLS[i]) : Skills.realLevel(SKILLS[i]);
+        }
+        boolean member = Worlds.isCurrentWorldMembers();
+        List<IntPair> inventory = toPairs(inventoryItems), equipment = toPairs(equipmentItems);
+        TeleportIndex.index(inventoryItems);
+        TeleportIndex.index(equipmentItems);
+
+        synchronized (PlayerDetails.class) {
+            PlayerDetails previous = last;
+            PlayerDetails details = new PlayerDetails();
+            details.setSkills(skills);
+            details.member = member;
+            details.varpVersion = varps.getVersion();
+            if (previous != null && previous.varpVersion == varps.getVersion()) {
+                details.setting = previous.setting;
+                details.varbit = previous.varbit;
+            } else {
+                details.setting = reuse(previous != null ? previous.setting : null, readSettings(varps));
+                details.varbit = reuse(previous != null ? previous.varbit : null, readVarbits(varps));
+            }
+            details.equipment = reuse(previous != null ? previous.equipment : null, equipment);
+            details.inventory = reuse(previous != null ? previous.inventory : null, inventory);
+            if (previous == null) {
+                return last = details;
+            }
+
+            boolean changed = false;
+            for (int section = 0; section < SECTIONS; section++) {
+                if (details.isSame(previous, section)) {
+                    details.fragments[section] = previous.fragments[section];
+                } else {
+                    changed = true;
+                }
+            }
+            if (!changed) {
+                previous.varpVersion = details.varpVersion;
+                return previous;
+            }
+            return last = details;
+        }
+    }
+
+    /**
+     * @return whether the varp is one of the quest and unlock settings transport requirements are read from.
+     */
+    public static boolean isRequirementSetting(int index) {
+        return SETTING_IDS.contains(index);
+    }
+
+    /**
+     * @return whether the varbit is one of the ones transport requirements are read from.
+     */
+    public static boolean isRequirementVarbit(int id) {
+        return VARBIT_IDS.contains(id);
+    }
+
+    private static List<IntPair> toPairs(List<Item> items) {
+        List<IntPair> pairs = new ArrayList<>(items.size());
+        for (Item item : items) {
+            pairs.add(new IntPair(item.id(), item.getStack()));
+        }
+        return pairs;
+    }
+
+    private static List<IntPair> readSettings(VarpSnapshot varps) {
+        return Arrays.stream(SETTINGS).mapToObj(value -> new IntPair(value, varps.varp(value))).distinct().collect(Collectors.toList());
+    }
+
+    private static List<IntPair> readVarbits(VarpSnapshot varps) {
+        return Arrays.stream(VARBITS).mapToObj(value -> new IntPair(value, varps.varbit(value))).distinct().collect(
+                Collectors.toList());
+    }
+
+    /**
+     * @return the previous list if it holds the same keys and values, so the section stays shared.
+     */
+    private static List<IntPair> reuse(List<IntPair> previous, List<IntPair> current) {
+        if (previous == null || previous.size() != current.size()) {
+            return current;
+        }
+        for (int i = 0; i < current.size(); i++) {
+            if (previous.get(i).getKey() != current.get(i).getKey() || previous.get(i).getValue() != current.get(i).getValue()) {
+                return current;
+            }
+        }
+        return previous;
     }
 
 
@@ -159,6 +241,12 @@ public class PlayerDetails {
 
     private List<IntPair> inventory;
 
+    private transient String[] fragments = new String[SECTIONS];
+
+    private transient volatile String json;
+
+    private transient long varpVersion = -1;
+
     public PlayerDetails() {
 
     }
@@ -286,6 +374,20 @@ public class PlayerDetails {
         return construction;
     }
 
+    /**
+     * @param skill name of the skill field, e.g. "agility"
+     * @return level of the skill, -1 if there is no such skill.
+     */
+    public int getLevel(String skill) {
+        int[] skills = getSkills();
+        for (int i = 0; i < SKILL_FIELDS.length; i++) {
+            if (SKILL_FIELDS[i].equals(skill)) {
+                return skills[i];
+            }
+        }
+        return -1;
+    }
+
     public List<IntPair> getSetting() {
         return setting;
     }
@@ -307,7 +409,158 @@ public class PlayerDetails {
     }
 
     public JsonElement toJson() {
-        return new Gson().toJsonTree(this);
+        return new JsonParser().parse(getJson());
+    }
+
+    /**
+     * @return serialized form as Gson writes it, joined from the cached section fragments.
+     */
+    public String getJson() {
+        String json = this.json;
+        if (json == null) {
+            StringBuilder builder = new StringBuilder(1024).append('{');
+            for (int section = 0; section < SECTIONS; section++) {
+                String fragment = getFragment(section);
+                if (fragment.isEmpty()) {
+                    continue;
+                }
+                if (builder.length() > 1) {
+                    builder.append(',');
+                }
+                builder.append(fragment);
+            }
+            this.json = json = builder.append('}').toString();
+        }
+        return json;
+    }
+
+    private String getFragment(int section) {
+        if (fragments == null) {
+            fragments = new String[SECTIONS];
+        }
+        String fragment = fragments[section];
+        if (fragment == null) {
+            StringBuilder builder = new StringBuilder();
+            switch (section) {
+                case SKILLS_SECTION:
+                    int[] skills = getSkills();
+                    for (int i = 0; i < skills.length; i++) {
+                        builder.append(i > 0 ? "," : "").append('"').append(SKILL_FIELDS[i]).append("\":").append(skills[i]);
+                    }
+                    break;
+                case SETTING_SECTION:
+                    appendPairs(builder, "setting", setting);
+                    break;
+                case VARBIT_SECTION:
+                    appendPairs(builder, "varbit", varbit);
+                    break;
+                case MEMBER_SECTION:
+                    builder.append("\"member\":").append(member);
+                    break;
+                case EQUIPMENT_SECTION:
+                    appendPairs(builder, "equipment", equipment);
+                    break;
+                case INVENTORY_SECTION:
+                    appendPairs(builder, "inventory", inventory);
+                    break;
+            }
+            fragments[section] = fragment = builder.toString();
+        }
+        return fragment;
+    }
+
+    private static void appendPairs(StringBuilder builder, String name, List<IntPair> pairs) {
+        if (pairs == null) {
+            return;
+        }
+        builder.append('"').append(name).append("\":[");
+        for (int i = 0; i < pairs.size(); i++) {
+            IntPair pair = pairs.get(i);
+            builder.append(i > 0 ? "," : "").append("{\"key\":").append(pair.getKey()).append(",\"value\":").append(pair.getValue()).append('}');
+        }
+        builder.append(']');
+    }
+
+    private boolean isSame(PlayerDetails other, int section) {
+        switch (section) {
+            case SKILLS_SECTION:
+                return Arrays.equals(getSkills(), other.getSkills());
+            case SETTING_SECTION:
+                return setting == other.setting;
+            case VARBIT_SECTION:
+                return varbit == other.varbit;
+            case MEMBER_SECTION:
+                return member == other.member;
+            case EQUIPMENT_SECTION:
+                return equipment == other.equipment;
+            case INVENTORY_SECTION:
+                return inventory == other.inventory;
+            default:
+                return false;
+        }
+    }
+
+    private int[] getSkills() {
+        return new int[]{attack, defence, strength, hitpoints, ranged, prayer, magic, cooking, woodcutting, fletching,
+                fishing, firemaking, crafting, smithing, mining, herblore, agility, thieving, slayer, farming,
+                runecrafting, hunter, construction};
+    }
+
+    private void setSkills(int[] skills) {
+        attack = skills[0];
+        defence = skills[1];
+        strength = skills[2];
+        hitpoints = skills[3];
+        ranged = skills[4];
+        prayer = skills[5];
+        magic = skills[6];
+        cooking = skills[7];
+        woodcutting = skills[8];
+        fletching = skills[9];
+        fishing = skills[10];
+        firemaking = skills[11];
+        crafting = skills[12];
+        smithing = skills[13];
+        mining = skills[14];
+        herblore = skills[15];
+        agility = skills[16];
+        thieving = skills[17];
+        slayer = skills[18];
+        farming = skills[19];
+        runecrafting = skills[20];
+        hunter = skills[21];
+        construction = skills[22];
+    }
+
+    /**
+     * Writes {@link PlayerDetails} from {@link #getJson()} instead of reflecting over its fields again, reading is left
+     * to Gson.
+     */
+    public static class JsonAdapterFactory implements TypeAdapterFactory {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+            if (type.getRawType() != PlayerDetails.class) {
+                return null;
+            }
+            TypeAdapter<PlayerDetails> delegate = gson.getDelegateAdapter(this, TypeToken.get(PlayerDetails.class));
+            return (TypeAdapter<T>) new TypeAdapter<PlayerDetails>() {
+                @Override
+                public void write(JsonWriter out, PlayerDetails value) throws IOException {
+                    if (value == null) {
+                        out.nullValue();
+                    } else {
+                        out.jsonValue(value.getJson());
+                    }
+                }
+
+                @Override
+                public PlayerDetails read(JsonReader in) throws IOException {
+                    return delegate.read(in);
+                }
+            };
+        }
     }
 
 }
@@ -0,0 +1,53 @@
+package org.powbot.dax.api.utils;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Jittered exponential backoff. Delays are drawn from [cap / 2, cap] where cap doubles every attempt, so clients that
+ * failed together do not retry in lock step.
+ */
+public class Backoff {
+
+    private final int maxAttempts;
+    private final long baseDelay, maxDelay;
+
+    /**
+     * @param maxAttempts total attempts including the first one
+     * @param baseDelay   milliseconds before the first retry
+     * @param maxDelay    upper bound of any delay in milliseconds
+     */
+    public Backoff(int maxAttempts, long baseDelay, long maxDelay) {
+        this.maxAttempts = maxAttempts;
+        this.baseDelay = baseDelay;
+        this.maxDelay = maxDelay;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * @param attempt 0 based attempt that just failed
+     * @return milliseconds to wait before the next attempt.
+     */
+    public long getDelay(int attempt) {
+        long cap = Math.min(maxDelay, baseDelay << Math.min(attempt, 20));
+        return ThreadLocalRandom.current().nextLong(cap / 2, cap + 1);
+    }
+
+    /**
+     * Sleeps for {@link #getDelay(int)}.
+     *
+     * @return false if interrupted.
+     */
+    public boolean await(int attempt) {
+        try {
+            Thread.sleep(getDelay(attempt));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+}
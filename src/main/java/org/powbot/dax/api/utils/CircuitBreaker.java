@@ -0,0 +1,90 @@
+package org.powbot.dax.api.utils;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Trips after consecutive failures and rejects requests until the (jittered) open period passed. Then a single probe
+ * request is let through, closing the breaker on success and reopening it on failure.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openDuration;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long retryAt;
+    private long trips;
+
+    /**
+     * @param failureThreshold consecutive failures that trip the breaker
+     * @param openDuration     minimum milliseconds the breaker stays open
+     */
+    public CircuitBreaker(int failureThreshold, long openDuration) {
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+    }
+
+    /**
+     * @return whether a request may be sent. Moves an expired open breaker to half open and claims its probe.
+     */
+    public synchronized boolean allowRequest() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.currentTimeMillis() < retryAt) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    public synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+        state = State.CLOSED;
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            retryAt = System.currentTimeMillis() + openDuration + ThreadLocalRandom.current().nextLong(openDuration / 2 + 1);
+            trips++;
+        }
+    }
+
+    /**
+     * @return whether requests are currently rejected.
+     */
+    public synchronized boolean isOpen() {
+        return state == State.HALF_OPEN || (state == State.OPEN && System.currentTimeMillis() < retryAt);
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    public synchronized long getTrips() {
+        return trips;
+    }
+
+    public synchronized void reset() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+    }
+
+}
@@ -0,0 +1,76 @@
+package org.powbot.dax.api.utils;
+
+/**
+ * Request count, errors and latency of one server endpoint.
+ */
+public class EndpointMetrics {
+
+    private static final double SMOOTHING = 0.2;
+
+    private final String endpoint;
+    private long requests, errors, rejected, totalLatency, maxLatency;
+    private double averageLatency;
+
+    public EndpointMetrics(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public synchronized void record(long latency, boolean success) {
+        requests++;
+        if (!success) {
+            errors++;
+        }
+        totalLatency += latency;
+        maxLatency = Math.max(maxLatency, latency);
+        averageLatency = requests == 1 ? latency : averageLatency + SMOOTHING * (latency - averageLatency);
+    }
+
+    /**
+     * Request short circuited by an open {@link CircuitBreaker}.
+     */
+    public synchronized void recordRejected() {
+        rejected++;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public synchronized long getRequests() {
+        return requests;
+    }
+
+    public synchronized long getErrors() {
+        return errors;
+    }
+
+    public synchronized long getRejected() {
+        return rejected;
+    }
+
+    public synchronized double getErrorRate() {
+        return requests == 0 ? 0 : (double) errors / requests;
+    }
+
+    public synchronized long getMeanLatency() {
+        return requests == 0 ? 0 : totalLatency / requests;
+    }
+
+    /**
+     * @return exponentially weighted latency, recent requests weigh more.
+     */
+    public synchronized long getRecentLatency() {
+        return Math.round(averageLatency);
+    }
+
+    public synchronized long getMaxLatency() {
+        return maxLatency;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return endpoint + "[requests=" + requests + ", errors=" + errors + ", rejected=" + rejected
+                + ", meanLatency=" + getMeanLatency() + "ms, recentLatency=" + getRecentLatency() + "ms, maxLatency=" + maxLatency + "ms]";
+    }
+
+}
@@ -0,0 +1,192 @@
+package org.powbot.dax.api.utils;
+
+import org.powbot.dax.api.models.PathResult;
+import org.powbot.dax.api.models.PathStatus;
+import org.powbot.dax.api.models.PlayerDetails;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+/**
+ * Merges concurrent path requests. Identical requests already in flight share one response (single flight), distinct
+ * requests with identical {@link PlayerDetails} arriving within the batch window are sent as one bulk request and the
+ * results are split back to each caller. Both only merge exact matches, so every caller is answered for its own player
+ * and start tiles. The first request of a batch only waits for others while other requests are in progress.
+ *
+ * @param <P> request pair type
+ */
+public class PathRequestCoalescer<P> {
+
+    public static final long DEFAULT_BATCH_WINDOW = 25;
+    public static final int MAX_BATCH_SIZE = 256;
+
+    private final BiFunction<PlayerDetails, List<P>, List<PathResult>> sender;
+    private final ConcurrentHashMap<String, CompletableFuture<List<PathResult>>> inFlight;
+    private final HashMap<String, Batch<P>> openBatches;
+    private final AtomicLong requests, coalesced, sent;
+    private final AtomicInteger active;
+    private volatile long batchWindow;
+
+    /**
+     * @param sender issues one bulk request, may throw unchecked exceptions which are rethrown to every caller.
+     */
+    public PathRequestCoalescer(BiFunction<PlayerDetails, List<P>, List<PathResult>> sender) {
+        this.sender = sender;
+        this.inFlight = new ConcurrentHashMap<>();
+        this.openBatches = new HashMap<>();
+        this.requests = new AtomicLong();
+        this.coalesced = new AtomicLong();
+        this.sent = new AtomicLong();
+        this.active = new AtomicInteger();
+        this.batchWindow = DEFAULT_BATCH_WINDOW;
+    }
+
+    /**
+     * @param requestKey exact key of the request, equal only for requests with the same player details and pairs
+     * @param player
+     * @param pairs
+     * @return one result per pair, or a single result if the whole request failed.
+     */
+    public List<PathResult> request(String requestKey, PlayerDetails player, List<P> pairs) {
+        requests.incrementAndGet();
+        active.incrementAndGet();
+        try {
+            CompletableFuture<List<PathResult>> future = new CompletableFuture<>();
+            CompletableFuture<List<PathResult>> existing = inFlight.putIfAbsent(requestKey, future);
+            if (existing != null) {
+                coalesced.incrementAndGet();
+                return join(existing);
+            }
+            try {
+                future.complete(batch(player, pairs));
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            } finally {
+                inFlight.remove(requestKey, future);
+            }
+            return join(future);
+        } finally {
+            active.decrementAndGet();
+        }
+    }
+
+    /**
+     * @param batchWindow milliseconds the first request of a batch waits for others, 0 to disable batching.
+     */
+    public void setBatchWindow(long batchWindow) {
+        this.batchWindow = batchWindow;
+    }
+
+    public long getBatchWindow() {
+        return batchWindow;
+    }
+
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    public long getSentCount() {
+        return sent.get();
+    }
+
+    private List<PathResult> batch(PlayerDetails player, List<P> pairs) {
+        long window = batchWindow;
+        if (window <= 0) {
+            return send(player, pairs);
+        }
+
+        String playerKey = player != null ? player.getJson() : "null";
+        Batch<P> batch;
+        int offset;
+        boolean leader = false;
+        synchronized (openBatches) {
+            batch = openBatches.get(playerKey);
+            if (batch == null || batch.pairs.size() + pairs.size() > MAX_BATCH_SIZE) {
+                batch = new Batch<>(player);
+                openBatches.put(playerKey, batch);
+                leader = true;
+            }
+            offset = batch.pairs.size();
+            batch.pairs.addAll(pairs);
+            batch.callers++;
+        }
+
+        if (leader) {
+            if (active.get() > 1) {
+                try {
+                    Thread.sleep(window);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            List<P> batchPairs;
+            int callers;
+            synchronized (openBatches) {
+                openBatches.remove(playerKey, batch);
+                batchPairs = new ArrayList<>(batch.pairs);
+                callers = batch.callers;
+            }
+            try {
+                List<PathResult> results = send(batch.player, batchPairs);
+                batch.result.complete(callers == 1 ? results : split(results, batchPairs.size()));
+            } catch (Throwable t) {
+                batch.result.completeExceptionally(t);
+            }
+        }
+
+        List<PathResult> results = join(batch.result);
+        if (results.size() != batch.pairs.size()) {
+            return results;
+        }
+        return new ArrayList<>(results.subList(offset, offset + pairs.size()));
+    }
+
+    private List<PathResult> send(PlayerDetails player, List<P> pairs) {
+        sent.incrementAndGet();
+        return sender.apply(player, pairs);
+    }
+
+    /**
+     * A response that does not have one result per pair failed as a whole, every caller gets its first result.
+     */
+    private static List<PathResult> split(List<PathResult> results, int size) {
+        if (results.size() == size) {
+            return results;
+        }
+        return Collections.singletonList(results.isEmpty() ? new PathResult(PathStatus.UNKNOWN) : results.get(0));
+    }
+
+    private static List<PathResult> join(CompletableFuture<List<PathResult>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static class Batch<P> {
+        private final PlayerDetails player;
+        private final List<P> pairs;
+        private final CompletableFuture<List<PathResult>> result;
+        private int callers;
+
+        private Batch(PlayerDetails player) {
+            this.player = player;
+            this.pairs = new ArrayList<>();
+            this.result = new CompletableFuture<>();
+        }
+    }
+
+}
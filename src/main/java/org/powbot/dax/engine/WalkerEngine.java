@@ -11,14 +11,19 @@ import org.powbot.dax.engine.collision.CollisionDataCollector;
 import org.powbot.dax.engine.collision.RealTimeCollisionTile;
 import org.powbot.dax.engine.interaction.PathObjectHandler;
 import org.powbot.dax.engine.local.PathAnalyzer;
+import org.powbot.dax.engine.local.PathProgressTracker;
+import org.powbot.dax.engine.local.ReachabilityField;
 import org.powbot.dax.engine.local.Reachable;
 import org.powbot.dax.engine.navigation.Charter;
 import org.powbot.dax.engine.navigation.NavigationSpecialCase;
 import org.powbot.dax.engine.navigation.PathUtils;
 import org.powbot.dax.engine.navigation.ShipUtils;
+import org.powbot.dax.engine.navigation.TransportIndex;
+import org.powbot.dax.shared.IndexedPath;
 import org.powbot.dax.shared.PathFindingNode;
 import org.powbot.dax.shared.helpers.AccurateMouse;
 import org.powbot.dax.shared.helpers.Projection;
+import org.powbot.dax.shared.helpers.VarpSnapshot;
 import org.powbot.dax.teleports.Teleport;
 import org.powbot.mobile.script.ScriptManager;
 
@@ -63,6 +68,13 @@ public class WalkerEngine implements Loggable {
     }
 
     public boolean walkPath(List<Tile> path, WalkingCondition walkingCondition, int runMin, int runMax){
+        return walkPath(IndexedPath.of(path), walkingCondition, runMin, runMax);
+    }
+
+    /**
+     * The path is indexed so the position lookups of every poll are constant time.
+     */
+    private boolean walkPath(IndexedPath path, WalkingCondition walkingCondition, int runMin, int runMax){
         if (path.size() == 0) {
             log("Path is empty");
             return false;
@@ -77,6 +89,7 @@ public class WalkerEngine implements Loggable {
         }
 
         Varpbits.invalidateCache();
+        VarpSnapshot.invalidate();
 
         int wantedEnergy = runMax > runMin ? Random.nextInt(runMin, runMax) : 0;
 
@@ -210,6 +223,9 @@ public class WalkerEngine implements Loggable {
                     case FURTHEST_CLICKABLE_TILE:
                         if (clickMinimap(currentNode)) {
                             long offsetWalkingTimeout = System.currentTimeMillis() + Random.nextInt(2500, 4000);
+                            int indexCurrentDestination = path.indexOf(destination.getTile());
+                            PathProgressTracker progress = new PathProgressTracker(path,
+                                PathAnalyzer.closestToPlayer != null ? path.indexOf(PathAnalyzer.closestToPlayer.getTile()) : 0);
                             WaitFor.condition(10000, () -> {
                                 switch (conditionContainer.trigger()) {
                                     case EXIT_OUT_WALKER_SUCCESS:
@@ -217,22 +233,13 @@ public class WalkerEngine implements Loggable {
                                         return WaitFor.Return.SUCCESS;
                                 }
 
-                                PathAnalyzer.DestinationDetails furthestReachable = PathAnalyzer.furthestReachableTile(path);
-                                PathFindingNode currentDestination = BFS.bfsClosestToPath(path, RealTimeCollisionTile.get(destination.getX(), destination.getY(), destination.getZ()));
-                                if (currentDestination == null) {
-                                    log("Could not walk to closest tile in path.");
-                                    failedAttempt();
-                                    return WaitFor.Return.FAIL;
-                                }
-                                int indexCurrentDestination = path.indexOf(currentDestination.getTile());
-
-                                PathFindingNode closestToPlayer = PathAnalyzer.closestTileInPathToPlayer(path);
-                                if (closestToPlayer == null) {
+                                int indexCurrentPosition = progress.update(Players.local().tile());
+                                if (indexCurrentPosition == -1) {
                                     log("Could not detect closest tile to player in path.");
                                     failedAttempt();
                                     return WaitFor.Return.FAIL;
                                 }
-                                int indexCurrentPosition = path.indexOf(closestToPlayer.getTile());
+                                PathAnalyzer.DestinationDetails furthestReachable = progress.getFurthestReachable();
                                 if (furthestReachable == null) {
                                     System.out.println("Furthest reachable is null");
                                     return WaitFor.Return.FAIL;
@@ -332,6 +339,7 @@ public class WalkerEngine implements Loggable {
         log("Failed attempt on action.");
         WaitFor.milliseconds(450 * (attemptsForAction + 1), 850 * (attemptsForAction + 1));
         CollisionDataCollector.generateRealTimeCollision();
+        ReachabilityField.invalidate();
     }
 
     private boolean isFailedOverThreshhold(){
@@ -367,9 +375,10 @@ public class WalkerEngine implements Loggable {
         if(Bank.opened())
             Bank.close();
         boolean members = Worlds.isCurrentWorldMembers();
-        for (Teleport teleport : Teleport.values()) {
-            if (!teleport.canUse() || (teleport.requiresMembers() && !members)) continue;
-            if(teleport.isAtTeleportSpot(startPosition) && !teleport.isAtTeleportSpot(playerPosition)){
+        List<Item> inventory = Inventory.stream().list(), equipment = Equipment.stream().list();
+        for (Teleport teleport : TransportIndex.getWithin(startPosition, Teleport.SPOT_DISTANCE, Teleport.class)) {
+            if (teleport.requiresMembers() && !members) continue;
+            if(teleport.isAtTeleportSpot(startPosition) && !teleport.isAtTeleportSpot(playerPosition) && teleport.canUse(inventory, equipment)){
                 log("Using teleport method: " + teleport);
                 teleport.trigger();
                 if (WaitFor.condition(Random.nextInt(3000, 20000),
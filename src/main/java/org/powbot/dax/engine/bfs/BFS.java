@@ -3,13 +3,17 @@ package org.powbot.dax.engine.bfs;
 
 import org.powbot.api.Tile;
 import org.powbot.dax.engine.WaitFor;
-import org.powbot.dax.shared.NodeInfo;
+import org.powbot.dax.engine.collision.RealTimeCollisionTile;
+import org.powbot.dax.engine.local.ReachabilityField;
 import org.powbot.dax.shared.PathFindingNode;
+import org.powbot.dax.shared.SearchState;
 
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Queue;
 
+/**
+ * Breadth first searches over the scene collision. Searches from a start are views over its {@link ReachabilityField}
+ * on the {@link org.powbot.dax.engine.collision.CollisionGrid}, the random walk runs on {@link BFSEngine}.
+ */
 public class BFS {
 
     private static final int DEFAULT_OFFSET = 12;
@@ -26,31 +30,19 @@ public class BFS {
         if (path.contains(start.getTile())) {
             return start;
         }
-        NodeInfo.clearMemory(start.getClass());
-
-        int iteration = 0;
-        Queue<PathFindingNode> queue = new LinkedList<>();
-        queue.add(start);
-        NodeInfo.create(queue.peek()).traversed = true;
-
-        while (!queue.isEmpty()){
-            if (iteration != -1 && iteration++ == limit){
-                break;
-            }
-            PathFindingNode current = queue.remove();
-            for (PathFindingNode neighbor : current.getNeighbors()){
-                NodeInfo.Details nodeInfo = NodeInfo.create(neighbor);
-                if (nodeInfo.traversed){
-                    continue;
-                }
-                nodeInfo.traversed = true;
-                if (path.contains(neighbor.getTile())){
-                    return neighbor;
-                }
-                queue.add(neighbor);
+        ReachabilityField field = ReachabilityField.ofGrid(start.getTile());
+        int closest = -1;
+        for (Tile tile : path) {
+            int index = tile.floor() == start.getZ() ? field.index(tile.getX(), tile.getY()) : -1;
+            if (index != -1 && field.isReachable(index, limit) && (closest == -1 || field.getPosition(index) < field.getPosition(closest))) {
+                closest = index;
             }
         }
-        return null;
+        if (closest == -1) {
+            return null;
+        }
+        Tile tile = field.getTile(closest);
+        return RealTimeCollisionTile.get(tile.getX(), tile.getY(), start.getZ());
     }
 
     /**
@@ -67,35 +59,9 @@ public class BFS {
         if (start.equals(end)) {
             return true;
         }
-        NodeInfo.clearMemory(start.getClass());
-
-        int iteration = 0;
-        Queue<PathFindingNode> queue = new LinkedList<>();
-        queue.add(start);
-        NodeInfo.create(queue.peek()).traversed = true;
-
-        while (!queue.isEmpty()){
-            if (iteration != -1 && iteration++ == limit){
-                return false;
-            }
-            PathFindingNode current = queue.remove();
-            for (PathFindingNode neighbor : current.getNeighbors()){
-                NodeInfo.Details nodeInfo = NodeInfo.create(neighbor);
-                if (nodeInfo.traversed){
-                    continue;
-                }
-
-                nodeInfo.traversed = true;
-
-                if (neighbor.equals(end)){
-                    return true;
-                }
-
-
-                queue.add(neighbor);
-            }
-        }
-        return false;
+        ReachabilityField field = ReachabilityField.ofGrid(start.getTile());
+        int index = end.getZ() == start.getZ() ? field.index(end.getX(), end.getY()) : -1;
+        return index != -1 && field.isReachable(index, limit);
     }
 
     /**
@@ -111,37 +77,21 @@ public class BFS {
 
 
     public static PathFindingNode getRandomTileNearby(PathFindingNode start){
-        NodeInfo.clearMemory(start.getClass());
-
-        int limit = WaitFor.random(1, OFFSET_SEARCH), currentLimit = 0;
-        Queue<PathFindingNode> queue = new LinkedList<>();
-        queue.add(start);
-        NodeInfo.create(queue.peek()).traversed = true;
-
-        while (!queue.isEmpty()){
-
-            PathFindingNode current = queue.remove();
-
-            if (++currentLimit > limit){
-                return current;
-            }
-
-            if (start.distance(current) > limit){
-                return current;
-            }
-            for (PathFindingNode neighbor : current.getNeighbors()){
-                NodeInfo.Details nodeInfo = NodeInfo.create(neighbor);
-                if (nodeInfo.traversed){
-                    continue;
-                }
-
-                nodeInfo.traversed = true;
-
-                queue.add(neighbor);
-            }
+        SearchState state = SearchState.get().begin();
+        int startIndex = state.index(start.getX(), start.getY(), start.getZ());
+        if (startIndex == -1){
+            return null;
         }
-        return null;
+        int limit = WaitFor.random(1, OFFSET_SEARCH);
+        int index = BFSEngine.expand(state, startIndex, limit, limit);
+        return index == startIndex ? start : toNode(state, index);
     }
 
+    private static PathFindingNode toNode(SearchState state, int index){
+        if (index == BFSEngine.NOT_FOUND){
+            return null;
+        }
+        return RealTimeCollisionTile.get(state.getX(index), state.getY(index), state.getZ(index));
+    }
 
 }
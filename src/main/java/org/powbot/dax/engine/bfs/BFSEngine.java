@@ -0,0 +1,89 @@
+package org.powbot.dax.engine.bfs;
+
+import org.powbot.dax.engine.collision.TraversalMask;
+import org.powbot.dax.shared.SearchState;
+
+/**
+ * Breadth first search kernels over the {@link TraversalMask} of one plane. The frontier is a ring buffer of tile
+ * indices in the thread's {@link SearchState}, nothing is allocated per node.
+ */
+public class BFSEngine {
+
+    public static final int NOT_FOUND = -1;
+
+    /**
+     * @param state started search state, tiles marked with {@link SearchState#mark(int)} are targets if goal is -1
+     * @param start index of the start tile
+     * @param goal  index of the goal tile, -1 to stop at marked tiles
+     * @param limit number of expanded tiles after which the search gives up, -1 for no limit
+     * @return index of the first goal tile reached, {@link #NOT_FOUND} if none was.
+     */
+    public static int search(SearchState state, int start, int goal, int limit) {
+        int planeSize = state.getPlaneSize(), height = state.getHeight(), planeOffset = state.getZ(start) * planeSize;
+        byte[] masks = TraversalMask.getPlane(state.getZ(start));
+        int[] queue = state.getQueue();
+        int capacity = queue.length - 1, head = 0, tail = 0, iteration = 0;
+
+        queue[tail++ & capacity] = start;
+        state.visit(start);
+        while (head != tail) {
+            if (limit != -1 && iteration++ == limit) {
+                return NOT_FOUND;
+            }
+            int local = queue[head++ & capacity] - planeOffset;
+            int mask = masks[local] & 0xFF;
+            for (int i = 0; mask != 0; i++, mask >>>= 1) {
+                if ((mask & 1) == 0) {
+                    continue;
+                }
+                int neighbor = planeOffset + local + TraversalMask.DX[i] * height + TraversalMask.DY[i];
+                if (!state.visit(neighbor)) {
+                    continue;
+                }
+                if (goal == -1 ? state.isMarked(neighbor) : neighbor == goal) {
+                    return neighbor;
+                }
+                queue[tail++ & capacity] = neighbor;
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * Expands from the start until more than maxExpanded tiles were taken off the queue or one is further than
+     * maxDistance.
+     *
+     * @param maxDistance in tenths of a tile, see {@link org.powbot.dax.shared.PathFindingNode#distance}
+     * @return index of the tile the expansion stopped at, {@link #NOT_FOUND} if the area was exhausted first.
+     */
+    public static int expand(SearchState state, int start, int maxExpanded, int maxDistance) {
+        int planeSize = state.getPlaneSize(), height = state.getHeight(), planeOffset = state.getZ(start) * planeSize;
+        int startX = (start - planeOffset) / height, startY = (start - planeOffset) % height;
+        byte[] masks = TraversalMask.getPlane(state.getZ(start));
+        int[] queue = state.getQueue();
+        int capacity = queue.length - 1, head = 0, tail = 0, expanded = 0;
+
+        queue[tail++ & capacity] = start;
+        state.visit(start);
+        while (head != tail) {
+            int current = queue[head++ & capacity];
+            int local = current - planeOffset;
+            int dx = local / height - startX, dy = local % height - startY;
+            if (++expanded > maxExpanded || (int) (Math.sqrt(dx * dx + dy * dy) * 10) > maxDistance) {
+                return current;
+            }
+            int mask = masks[local] & 0xFF;
+            for (int i = 0; mask != 0; i++, mask >>>= 1) {
+                if ((mask & 1) == 0) {
+                    continue;
+                }
+                int neighbor = planeOffset + local + TraversalMask.DX[i] * height + TraversalMask.DY[i];
+                if (state.visit(neighbor)) {
+                    queue[tail++ & capacity] = neighbor;
+                }
+            }
+        }
+        return NOT_FOUND;
+    }
+
+}
@@ -4,42 +4,124 @@ package org.powbot.dax.engine.collision;
 import org.powbot.api.Tile;
 import org.powbot.api.rt4.Game;
 import org.powbot.api.rt4.Movement;
-import org.powbot.api.rt4.Players;
+import org.powbot.dax.engine.global.CollisionFileWriter;
 import org.powbot.util.TransientGetter2D;
 
 public class CollisionDataCollector {
 
-    public static void generateRealTimeCollision(){
-        RealTimeCollisionTile.clearMemory();
+    /**
+     * Time after which {@link #refreshRealTimeCollision()} reads the client again, one game tick.
+     */
+    public static final long TICK = 600;
 
-        Tile playerPosition = Players.local().tile();
-        TransientGetter2D<Integer> collisionData = Movement.collisionMap(Game.floor()).flags();
+    private static long refreshed;
+    private static int refreshedFloor = -1;
+    private static boolean stale = true;
 
+    /**
+     * Brings the grid up to the client. It is reloaded if the scene changed and updated if the floor changed, a tick
+     * passed or {@link #invalidateRealTimeCollision()} was called since, otherwise the client is not read.
+     */
+    public static synchronized void refreshRealTimeCollision(){
         Tile mapOffset = Game.mapOffset();
-        for (int i = 0; i < collisionData.getSize(); i++) {
-            for (int j = 0; j < collisionData.get(i).getSize(); j++) {
-                Tile worldTile = new Tile(mapOffset.x() + i, mapOffset.y() + j, playerPosition.floor());
-                RealTimeCollisionTile.create(worldTile.getX(), worldTile.getY(), worldTile.floor(), collisionData.get(i).get(j));
-            }
+        int floor = Game.floor();
+        long now = System.currentTimeMillis();
+        if (mapOffset.x() != CollisionGrid.getBaseX() || mapOffset.y() != CollisionGrid.getBaseY()) {
+            generateRealTimeCollision();
+        } else if (stale || floor != refreshedFloor || now - refreshed >= TICK) {
+            updateRealTimeCollision();
+        } else {
+            return;
         }
+        refreshed = now;
+        refreshedFloor = floor;
+        stale = false;
+    }
+
+    /**
+     * Makes the next {@link #refreshRealTimeCollision()} read the client, for when the collision is known to have changed.
+     */
+    public static synchronized void invalidateRealTimeCollision(){
+        stale = true;
+    }
+
+    public static void generateRealTimeCollision(){
+        generateRealTimeCollision(SceneSnapshot.capture());
+    }
+
+    public static void generateRealTimeCollision(SceneSnapshot snapshot){
+        CollisionGrid.reset(snapshot.getBaseX(), snapshot.getBaseY(), snapshot.getWidth(), snapshot.getHeight());
+        load(snapshot, snapshot.getPlayer().floor(), false);
     }
 
     public static void updateRealTimeCollision(){
-        Tile playerPosition = Players.local().tile();
-        TransientGetter2D<Integer> collisionData = Movement.collisionMap(Game.floor()).flags();
+        updateRealTimeCollision(SceneSnapshot.capture());
+    }
+
+    public static void updateRealTimeCollision(SceneSnapshot snapshot){
+        if (!CollisionGrid.isScene(snapshot.getBaseX(), snapshot.getBaseY(), snapshot.getWidth(), snapshot.getHeight())) {
+            CollisionGrid.reset(snapshot.getBaseX(), snapshot.getBaseY(), snapshot.getWidth(), snapshot.getHeight());
+        }
+        load(snapshot, snapshot.getPlayer().floor(), true);
+    }
 
+    /**
+     * Uninitialized tiles are skipped unless they update a tile already in the grid.
+     */
+    private static void load(SceneSnapshot snapshot, int z, boolean update){
+        int baseX = CollisionGrid.getBaseX(), baseY = CollisionGrid.getBaseY();
+        for (int i = 0; i < snapshot.getWidth(); i++) {
+            for (int j = 0; j < snapshot.getHeight(); j++) {
+                int flags = snapshot.getFlags(i, j);
+                if (RealTimeCollisionTile.isInitialized(flags) || (update && CollisionGrid.contains(baseX + i, baseY + j, z))) {
+                    CollisionGrid.setLocal(i, j, z, flags);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the loaded scene of the current floor to a collision file being built.
+     */
+    public static void collect(CollisionFileWriter writer){
+        int floor = Game.floor();
         Tile mapOffset = Game.mapOffset();
-        for (int i = 0; i < collisionData.getSize(); i++) {
-            for (int j = 0; j < collisionData.get(i).getSize(); j++) {
-                Tile worldTile = new Tile(mapOffset.x() + i, mapOffset.y() + j, playerPosition.floor());
-                RealTimeCollisionTile realTimeCollisionTile = RealTimeCollisionTile.get(worldTile.getX(), worldTile.getY(), worldTile.floor());
-                if (realTimeCollisionTile != null){
-                    realTimeCollisionTile.setCollisionData(collisionData.get(i).get(j));
-                } else {
-                    RealTimeCollisionTile.create(worldTile.getX(), worldTile.getY(), worldTile.floor(), collisionData.get(i).get(j));
+        writer.addScene(mapOffset.x(), mapOffset.y(), floor, captureScene(floor));
+    }
+
+    /**
+     * @param flags scene from {@link #captureScene(int)}
+     * @return whether the scene holds collision data. While a region loads the client's flags are still all zero apart
+     * from the {@link CollisionFlags#CLOSED} border.
+     */
+    public static boolean isLoaded(int[][] flags){
+        for (int[] column : flags) {
+            for (int value : column) {
+                if (value != 0 && value != CollisionFlags.CLOSED) {
+                    return true;
                 }
             }
         }
+        return false;
+    }
+
+    /**
+     * @param floor
+     * @return copy of the loaded collision flags indexed [localX][localY], empty if the client has none.
+     */
+    public static int[][] captureScene(int floor){
+        TransientGetter2D<Integer> collisionData = Movement.collisionMap(floor).flags();
+        if (collisionData == null) {
+            return new int[0][];
+        }
+        int[][] flags = new int[collisionData.getSize()][];
+        for (int i = 0; i < flags.length; i++) {
+            flags[i] = new int[collisionData.get(i).getSize()];
+            for (int j = 0; j < flags[i].length; j++) {
+                flags[i][j] = collisionData.get(i).get(j);
+            }
+        }
+        return flags;
     }
 
 }
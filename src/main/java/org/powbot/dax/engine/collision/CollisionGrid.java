@@ -0,0 +1,117 @@
+package org.powbot.dax.engine.collision;
+
+import java.util.Arrays;
+
+/**
+ * Collision flags of the loaded scene, one int array per plane indexed by local coordinates. Arrays are reused between
+ * scenes of the same size, so reloading does not allocate.
+ */
+public class CollisionGrid {
+
+    public static final int PLANES = 4;
+
+    /**
+     * Flags of a tile without collision data. Collision flags never use the sign bit.
+     */
+    public static final int MISSING = Integer.MIN_VALUE;
+
+    private static int baseX, baseY, width, height;
+    private static final int[][] planes = new int[PLANES][];
+    private static int version;
+
+    /**
+     * Clears every plane and moves the grid to a new scene.
+     *
+     * @param baseX world x of local 0
+     * @param baseY world y of local 0
+     * @param width
+     * @param height
+     */
+    public static void reset(int baseX, int baseY, int width, int height) {
+        CollisionGrid.baseX = baseX;
+        CollisionGrid.baseY = baseY;
+        if (CollisionGrid.width != width || CollisionGrid.height != height) {
+            CollisionGrid.width = width;
+            CollisionGrid.height = height;
+            Arrays.fill(planes, null);
+        }
+        for (int[] plane : planes) {
+            if (plane != null) {
+                Arrays.fill(plane, MISSING);
+            }
+        }
+        version++;
+    }
+
+    /**
+     * @return whether the grid covers the scene.
+     */
+    public static boolean isScene(int baseX, int baseY, int width, int height) {
+        return CollisionGrid.baseX == baseX && CollisionGrid.baseY == baseY && CollisionGrid.width == width && CollisionGrid.height == height;
+    }
+
+    public static void setLocal(int localX, int localY, int z, int flags) {
+        int[] plane = planes[z];
+        if (plane == null) {
+            plane = planes[z] = new int[width * height];
+            Arrays.fill(plane, MISSING);
+        }
+        int index = localX * height + localY;
+        if (plane[index] != flags) {
+            plane[index] = flags;
+            version++;
+        }
+    }
+
+    /**
+     * @return false if the tile is outside the scene.
+     */
+    public static boolean set(int x, int y, int z, int flags) {
+        int localX = x - baseX, localY = y - baseY;
+        if (localX < 0 || localY < 0 || localX >= width || localY >= height || z < 0 || z >= PLANES) {
+            return false;
+        }
+        setLocal(localX, localY, z, flags);
+        return true;
+    }
+
+    /**
+     * @return flags of the world tile, {@link #MISSING} if it has none.
+     */
+    public static int getFlags(int x, int y, int z) {
+        int localX = x - baseX, localY = y - baseY;
+        if (localX < 0 || localY < 0 || localX >= width || localY >= height || z < 0 || z >= PLANES) {
+            return MISSING;
+        }
+        int[] plane = planes[z];
+        return plane != null ? plane[localX * height + localY] : MISSING;
+    }
+
+    public static boolean contains(int x, int y, int z) {
+        return getFlags(x, y, z) != MISSING;
+    }
+
+    public static int getBaseX() {
+        return baseX;
+    }
+
+    public static int getBaseY() {
+        return baseY;
+    }
+
+    public static int getWidth() {
+        return width;
+    }
+
+    public static int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return counter changed by every reset and every write that changes a tile, for caches derived from the grid.
+     */
+    public static int getVersion() {
+        return version;
+    }
+
+}
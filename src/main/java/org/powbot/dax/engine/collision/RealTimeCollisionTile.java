@@ -5,49 +5,55 @@ import org.powbot.dax.shared.PathFindingNode;
 import org.powbot.dax.shared.RSRegion;
 
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.HashSet;
 
 
+/**
+ * View of one tile in the {@link CollisionGrid}. Views hold no collision data of their own and are only created when
+ * a caller needs a {@link PathFindingNode}.
+ */
 public class RealTimeCollisionTile extends PathFindingNode {
 
-    private int x, y, z, collisionData;
+    private final int x, y, z;
 
-    private RealTimeCollisionTile(int x, int y, int z, int collisionData){
+    private RealTimeCollisionTile(int x, int y, int z){
         this.x = x;
         this.y = y;
         this.z = z;
-        this.collisionData = collisionData;
     }
 
+    /**
+     * @return flags of the tile, {@link CollisionFlags#CLOSED} if the scene no longer contains it.
+     */
     public int getCollisionData() {
-        return collisionData;
+        int collisionData = CollisionGrid.getFlags(x, y, z);
+        return collisionData != CollisionGrid.MISSING ? collisionData : CollisionFlags.CLOSED;
     }
 
     public void setCollisionData(int collisionData) {
-        this.collisionData = collisionData;
+        CollisionGrid.set(x, y, z, collisionData);
     }
 
     public boolean blockedNorth(){
-        return blockedNorth(this.collisionData);
+        return blockedNorth(getCollisionData());
     }
 
     public boolean blockedEast(){
-        return blockedEast(this.collisionData);
+        return blockedEast(getCollisionData());
     }
     public boolean blockedSouth(){
-        return blockedSouth(this.collisionData);
+        return blockedSouth(getCollisionData());
     }
     public boolean blockedWest(){
-        return blockedWest(this.collisionData);
+        return blockedWest(getCollisionData());
     }
 
     public boolean isWalkable(){
-        return isWalkable(this.collisionData);
+        return isWalkable(getCollisionData());
     }
 
     public boolean isInitialized(){
-        return isInitialized(this.collisionData);
+        return isInitialized(getCollisionData());
     }
 
     public static boolean blockedNorth(int collisionData){
@@ -104,111 +110,69 @@ public class RealTimeCollisionTile extends PathFindingNode {
     @Override
     public Collection<PathFindingNode> getNeighbors() {
         Collection<PathFindingNode> neighbors = new HashSet<>();
-        boolean nNeighbor = false, eNeighbor = false, sNeighbor = false, wNeighbor = false;
-        RealTimeCollisionTile n = get(getX(), getY() + 1, getZ());
-        if (!blockedNorth()) {
-            if (n != null && n.isWalkable()){
-                neighbors.add(n);
-                nNeighbor = true;
-            }
-        }
-        RealTimeCollisionTile e = get(getX() + 1, getY(), getZ());
-        if (!blockedEast()) {
-            if (e != null && e.isWalkable()){
-                neighbors.add(e);
-                eNeighbor = true;
-            }
-        }
-        RealTimeCollisionTile s = get(getX(), getY() - 1, getZ());
-        if (!blockedSouth()) {
-            if (s != null && s.isWalkable()){
-                neighbors.add(s);
-                sNeighbor = true;
-            }
-        }
-        RealTimeCollisionTile w = get(getX() - 1, getY(), getZ());
-        if (!blockedWest()) {
-            if (w != null && w.isWalkable()){
-                neighbors.add(w);
-                wNeighbor = true;
-            }
-        }
-
-        if (nNeighbor && eNeighbor){
-            if (!n.blockedEast() && !e.blockedNorth()) {
-                RealTimeCollisionTile ne = get(getX() + 1, getY() + 1, getZ());
-                if (ne != null && ne.isWalkable()) {
-                    neighbors.add(ne);
-                }
-            }
-        }
-        if (sNeighbor && eNeighbor){
-            if (!s.blockedEast() && !e.blockedNorth()) {
-                RealTimeCollisionTile se = get(getX() + 1, getY() - 1, getZ());
-                if (se != null && se.isWalkable()) {
-                    neighbors.add(se);
-                }
-            }
-        }
-        if (sNeighbor && wNeighbor){
-            if (!s.blockedWest() && !w.blockedSouth()) {
-                RealTimeCollisionTile sw = get(getX() - 1, getY() - 1, getZ());
-                if (sw != null && sw.isWalkable()) {
-                    neighbors.add(sw);
-                }
-            }
-        }
-        if (nNeighbor && wNeighbor){
-            if (!n.blockedWest() && !w.blockedNorth()) {
-                RealTimeCollisionTile nw = get(getX() - 1, getY() + 1, getZ());
-                if (nw != null && nw.isWalkable()) {
-                    neighbors.add(nw);
-                }
+        int mask = TraversalMask.get(getX(), getY(), getZ());
+        for (int i = 0; i < TraversalMask.DX.length; i++) {
+            if ((mask & (1 << i)) != 0) {
+                neighbors.add(new RealTimeCollisionTile(getX() + TraversalMask.DX[i], getY() + TraversalMask.DY[i], getZ()));
             }
         }
         return neighbors;
     }
 
-    private static HashMap<Integer, HashMap<Integer, HashMap<Integer, RealTimeCollisionTile>>> xMap = new HashMap<>();
-    private static HashSet<RealTimeCollisionTile> allCached = new HashSet<>();
+    /**
+     * @return whether the tile dx, dy away is a neighbor, see {@link TraversalMask}.
+     */
+    public static boolean isNeighbor(int x, int y, int z, int dx, int dy) {
+        int direction = TraversalMask.direction(dx, dy);
+        return direction != -1 && (TraversalMask.get(x, y, z) & (1 << direction)) != 0;
+    }
 
+    /**
+     * @return view of the tile, null if the scene has no collision data for it.
+     */
     public static RealTimeCollisionTile get(int x, int y, int z){
-        HashMap<Integer, HashMap<Integer, RealTimeCollisionTile>> yMap = xMap.get(x);
-        if (yMap == null){
+        if (!CollisionGrid.contains(x, y, z)){
             return null;
         }
-        HashMap<Integer, RealTimeCollisionTile> zMap = yMap.get(y);
-        if (zMap == null){
-            return null;
-        }
-        return zMap.get(z);
+        return new RealTimeCollisionTile(x, y, z);
     }
 
     public static RealTimeCollisionTile create(int x, int y, int z, int collision){
-        RealTimeCollisionTile realTimeCollisionTile = new RealTimeCollisionTile(x, y, z, collision);
-        if (!realTimeCollisionTile.isInitialized()){
+        if (!isInitialized(collision)){
             System.out.println("Real time collision tile is not initialized.");
             return null;
         }
-        HashMap<Integer, HashMap<Integer, RealTimeCollisionTile>> yMap = xMap.computeIfAbsent(realTimeCollisionTile.getX(), k -> new HashMap<>());
-        HashMap<Integer, RealTimeCollisionTile> zMap = yMap.computeIfAbsent(realTimeCollisionTile.getY(), k -> new HashMap<>());
-        zMap.put(realTimeCollisionTile.getZ(), realTimeCollisionTile);
-        allCached.add(realTimeCollisionTile);
-        return realTimeCollisionTile;
+        if (!CollisionGrid.set(x, y, z, collision)){
+            return null;
+        }
+        return new RealTimeCollisionTile(x, y, z);
     }
 
+    /**
+     * @return views of every tile with collision data, allocated on each call.
+     */
     public static HashSet<RealTimeCollisionTile> getAllInitialized(){
-        return allCached;
+        HashSet<RealTimeCollisionTile> all = new HashSet<>();
+        for (int z = 0; z < CollisionGrid.PLANES; z++) {
+            for (int localX = 0; localX < CollisionGrid.getWidth(); localX++) {
+                for (int localY = 0; localY < CollisionGrid.getHeight(); localY++) {
+                    int x = CollisionGrid.getBaseX() + localX, y = CollisionGrid.getBaseY() + localY;
+                    if (CollisionGrid.contains(x, y, z)) {
+                        all.add(new RealTimeCollisionTile(x, y, z));
+                    }
+                }
+            }
+        }
+        return all;
     }
 
     public static void clearMemory(){
-        xMap = new HashMap<>();
-        allCached = new HashSet<>();
+        CollisionGrid.reset(CollisionGrid.getBaseX(), CollisionGrid.getBaseY(), CollisionGrid.getWidth(), CollisionGrid.getHeight());
     }
 
     @Override
     public String toString(){
         Tile t = getTile();
-        return "[(" + x  + "," + t.localX() + "), (" + y  + "," + t.localY() + "), " + z + ", " + collisionData + "]";
+        return "[(" + x  + "," + t.localX() + "), (" + y  + "," + t.localY() + "), " + z + ", " + getCollisionData() + "]";
     }
 }
@@ -0,0 +1,100 @@
+package org.powbot.dax.engine.collision;
+
+import org.powbot.api.Tile;
+
+/**
+ * Movement masks of a {@link SceneSnapshot}, built in a single pass over its collision flags. Bits are the ones of
+ * {@link TraversalMask}. Moves only need the destination to be inside the scene, callers check
+ * {@link #isWalkable(int, int)} where the destination has to be walkable.
+ *
+ * Tiles are addressed by local coordinates, the table is indexed localX * height + localY.
+ */
+public class SceneMask {
+
+    private static SceneMask grid;
+    private static int gridVersion;
+
+    private final SceneSnapshot snapshot;
+    private final int width, height;
+    private final byte[] masks;
+
+    public SceneMask(SceneSnapshot snapshot) {
+        this.snapshot = snapshot;
+        this.width = snapshot.getWidth();
+        this.height = snapshot.getHeight();
+        this.masks = TraversalMask.build(snapshot::getFlags, width, height, false, new byte[width * height]);
+    }
+
+    /**
+     * @return table of a new snapshot of the scene.
+     */
+    public static SceneMask load() {
+        return new SceneMask(SceneSnapshot.capture());
+    }
+
+    /**
+     * @return table of a plane of the {@link CollisionGrid}, the plane is only copied again once the grid changed.
+     */
+    public static synchronized SceneMask ofGrid(int z) {
+        if (grid == null || gridVersion != CollisionGrid.getVersion() || grid.getFloor() != z) {
+            grid = new SceneMask(SceneSnapshot.ofGrid(z));
+            gridVersion = CollisionGrid.getVersion();
+        }
+        return grid;
+    }
+
+    public boolean contains(int localX, int localY) {
+        return snapshot.contains(localX, localY);
+    }
+
+    /**
+     * @return flags of the local tile, {@link CollisionGrid#MISSING} outside the scene.
+     */
+    public int getFlags(int localX, int localY) {
+        return snapshot.getFlags(localX, localY);
+    }
+
+    public boolean isWalkable(int localX, int localY) {
+        int flags = snapshot.getFlags(localX, localY);
+        return flags != CollisionGrid.MISSING && RealTimeCollisionTile.isWalkable(flags);
+    }
+
+    /**
+     * @return mask of the local tile, 0 outside the scene.
+     */
+    public int get(int localX, int localY) {
+        return contains(localX, localY) ? masks[localX * height + localY] & 0xFF : 0;
+    }
+
+    /**
+     * @return world tile of the local coordinates.
+     */
+    public Tile toTile(int localX, int localY) {
+        return new Tile(snapshot.getBaseX() + localX, snapshot.getBaseY() + localY, snapshot.getFloor());
+    }
+
+    public SceneSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public int getBaseX() {
+        return snapshot.getBaseX();
+    }
+
+    public int getBaseY() {
+        return snapshot.getBaseY();
+    }
+
+    public int getFloor() {
+        return snapshot.getFloor();
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+}
@@ -0,0 +1,105 @@
+package org.powbot.dax.engine.collision;
+
+import org.powbot.api.Tile;
+import org.powbot.api.rt4.Game;
+import org.powbot.api.rt4.Players;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Collision flags, map offset, floor and player tile of the loaded scene, read from the client once by
+ * {@link #capture()} or copied from the {@link CollisionGrid} by {@link #ofGrid(int)}. Local pathing takes a
+ * snapshot as input so a flood fill never goes back to the client.
+ *
+ * Snapshots are immutable, the flags passed in are owned by the snapshot and must not be changed afterwards.
+ */
+public class SceneSnapshot {
+
+    private final int baseX, baseY, floor, width, height;
+    private final Tile player;
+    private final int[][] flags;
+
+    /**
+     * @param flags collision flags indexed [localX][localY]
+     */
+    public SceneSnapshot(int baseX, int baseY, int floor, Tile player, int[][] flags) {
+        this.baseX = baseX;
+        this.baseY = baseY;
+        this.floor = floor;
+        this.player = player;
+        this.flags = flags;
+        this.width = flags.length;
+        this.height = flags.length > 0 ? flags[0].length : 0;
+    }
+
+    public static SceneSnapshot capture() {
+        Tile player = Players.local().tile();
+        Tile mapOffset = Game.mapOffset();
+        int floor = Game.floor();
+        return new SceneSnapshot(mapOffset.x(), mapOffset.y(), floor, player, CollisionDataCollector.captureScene(floor));
+    }
+
+    /**
+     * @return copy of one plane of the {@link CollisionGrid} without a player, tiles without data stay
+     * {@link CollisionGrid#MISSING}.
+     */
+    public static SceneSnapshot ofGrid(int z) {
+        int width = CollisionGrid.getWidth(), height = CollisionGrid.getHeight(),
+                baseX = CollisionGrid.getBaseX(), baseY = CollisionGrid.getBaseY();
+        int[][] flags = new int[width][height];
+        for (int localX = 0; localX < width; localX++) {
+            for (int localY = 0; localY < height; localY++) {
+                flags[localX][localY] = CollisionGrid.getFlags(baseX + localX, baseY + localY, z);
+            }
+        }
+        return new SceneSnapshot(baseX, baseY, z, null, flags);
+    }
+
+    public boolean contains(int localX, int localY) {
+        return localX >= 0 && localY >= 0 && localX < width && localY < height;
+    }
+
+    /**
+     * @return flags of the local tile, {@link CollisionGrid#MISSING} outside the scene.
+     */
+    public int getFlags(int localX, int localY) {
+        return contains(localX, localY) ? flags[localX][localY] : CollisionGrid.MISSING;
+    }
+
+    /**
+     * @return whether both snapshots have the same scene, flags and player tile.
+     */
+    public boolean isSame(SceneSnapshot snapshot) {
+        return snapshot != null && baseX == snapshot.baseX && baseY == snapshot.baseY && floor == snapshot.floor
+                && Objects.equals(player, snapshot.player) && Arrays.deepEquals(flags, snapshot.flags);
+    }
+
+    public int getBaseX() {
+        return baseX;
+    }
+
+    public int getBaseY() {
+        return baseY;
+    }
+
+    public int getFloor() {
+        return floor;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return player tile, null for copies of the grid.
+     */
+    public Tile getPlayer() {
+        return player;
+    }
+
+}
@@ -0,0 +1,139 @@
+package org.powbot.dax.engine.collision;
+
+/**
+ * Movement mask per scene tile, derived once from the {@link CollisionGrid} flags and rebuilt when the grid changes.
+ * Bit i is set if the tile {@link #DX}[i], {@link #DY}[i] away can be walked to. Straight moves check the walls of the
+ * tile, diagonal moves also need both adjacent tiles to be walkable and the walls of those tiles. The destination has to
+ * be walkable.
+ *
+ * The rules are in {@link #mask(FlagSource, int, int, boolean)} alone. The grid planes here, the {@link SceneMask} of
+ * the client collision map and single moves of {@link org.powbot.dax.engine.local.Reachable.Direction} are all read
+ * through it.
+ */
+public class TraversalMask {
+
+    public static final int[] DX = {0, 1, 0, -1, 1, 1, -1, -1}, DY = {1, 0, -1, 0, 1, -1, -1, 1};
+
+    public static final int NORTH = 1, EAST = 1 << 1, SOUTH = 1 << 2, WEST = 1 << 3,
+            NORTH_EAST = 1 << 4, SOUTH_EAST = 1 << 5, SOUTH_WEST = 1 << 6, NORTH_WEST = 1 << 7;
+
+    /**
+     * Collision flags by local coordinates, {@link CollisionGrid#MISSING} for tiles without data or outside.
+     */
+    public interface FlagSource {
+        int getFlags(int localX, int localY);
+    }
+
+    private static final byte[][] planes = new byte[CollisionGrid.PLANES][];
+    private static final int[] versions = new int[CollisionGrid.PLANES];
+
+    /**
+     * @return mask of the world tile, 0 outside the scene.
+     */
+    public static int get(int x, int y, int z) {
+        int localX = x - CollisionGrid.getBaseX(), localY = y - CollisionGrid.getBaseY();
+        if (localX < 0 || localY < 0 || localX >= CollisionGrid.getWidth() || localY >= CollisionGrid.getHeight()
+                || z < 0 || z >= CollisionGrid.PLANES) {
+            return 0;
+        }
+        return getPlane(z)[localX * CollisionGrid.getHeight() + localY] & 0xFF;
+    }
+
+    /**
+     * @return masks of the plane indexed localX * height + localY like the grid, rebuilt if the grid changed.
+     */
+    public static byte[] getPlane(int z) {
+        int size = CollisionGrid.getWidth() * CollisionGrid.getHeight();
+        byte[] plane = planes[z];
+        if (plane != null && plane.length == size && versions[z] == CollisionGrid.getVersion()) {
+            return plane;
+        }
+        if (plane == null || plane.length != size) {
+            plane = planes[z] = new byte[size];
+        }
+        int baseX = CollisionGrid.getBaseX(), baseY = CollisionGrid.getBaseY();
+        build((localX, localY) -> CollisionGrid.getFlags(baseX + localX, baseY + localY, z),
+                CollisionGrid.getWidth(), CollisionGrid.getHeight(), true, plane);
+        versions[z] = CollisionGrid.getVersion();
+        return plane;
+    }
+
+    /**
+     * @return bit index of the step, -1 if dx, dy is not a single step.
+     */
+    public static int direction(int dx, int dy) {
+        for (int i = 0; i < DX.length; i++) {
+            if (DX[i] == dx && DY[i] == dy) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Fills the table with the mask of every tile, indexed localX * height + localY.
+     *
+     * @param walkableDestination whether destinations have to be walkable, otherwise they only have to exist.
+     */
+    public static byte[] build(FlagSource flags, int width, int height, boolean walkableDestination, byte[] masks) {
+        for (int localX = 0; localX < width; localX++) {
+            for (int localY = 0; localY < height; localY++) {
+                masks[localX * height + localY] = (byte) mask(flags, localX, localY, walkableDestination);
+            }
+        }
+        return masks;
+    }
+
+    /**
+     * Movement rules shared by every table. A tile without data has the walls of {@link CollisionFlags#CLOSED}.
+     *
+     * @param walkableDestination whether the destination has to be walkable, otherwise it only has to exist.
+     */
+    public static int mask(FlagSource source, int x, int y, boolean walkableDestination) {
+        int flags = source.getFlags(x, y);
+        if (flags == CollisionGrid.MISSING) {
+            flags = CollisionFlags.CLOSED;
+        }
+        int n = source.getFlags(x, y + 1), e = source.getFlags(x + 1, y), s = source.getFlags(x, y - 1), w = source.getFlags(x - 1, y);
+        int mask = 0;
+        if (!RealTimeCollisionTile.blockedNorth(flags) && isDestination(n, walkableDestination)) {
+            mask |= NORTH;
+        }
+        if (!RealTimeCollisionTile.blockedEast(flags) && isDestination(e, walkableDestination)) {
+            mask |= EAST;
+        }
+        if (!RealTimeCollisionTile.blockedSouth(flags) && isDestination(s, walkableDestination)) {
+            mask |= SOUTH;
+        }
+        if (!RealTimeCollisionTile.blockedWest(flags) && isDestination(w, walkableDestination)) {
+            mask |= WEST;
+        }
+
+        if (!RealTimeCollisionTile.blockedNorth(flags) && !RealTimeCollisionTile.blockedEast(flags) && isWalkable(n) && isWalkable(e)
+                && !RealTimeCollisionTile.blockedEast(n) && !RealTimeCollisionTile.blockedNorth(e) && isDestination(source.getFlags(x + 1, y + 1), walkableDestination)) {
+            mask |= NORTH_EAST;
+        }
+        if (!RealTimeCollisionTile.blockedSouth(flags) && !RealTimeCollisionTile.blockedEast(flags) && isWalkable(s) && isWalkable(e)
+                && !RealTimeCollisionTile.blockedEast(s) && !RealTimeCollisionTile.blockedSouth(e) && isDestination(source.getFlags(x + 1, y - 1), walkableDestination)) {
+            mask |= SOUTH_EAST;
+        }
+        if (!RealTimeCollisionTile.blockedSouth(flags) && !RealTimeCollisionTile.blockedWest(flags) && isWalkable(s) && isWalkable(w)
+                && !RealTimeCollisionTile.blockedWest(s) && !RealTimeCollisionTile.blockedSouth(w) && isDestination(source.getFlags(x - 1, y - 1), walkableDestination)) {
+            mask |= SOUTH_WEST;
+        }
+        if (!RealTimeCollisionTile.blockedNorth(flags) && !RealTimeCollisionTile.blockedWest(flags) && isWalkable(n) && isWalkable(w)
+                && !RealTimeCollisionTile.blockedWest(n) && !RealTimeCollisionTile.blockedNorth(w) && isDestination(source.getFlags(x - 1, y + 1), walkableDestination)) {
+            mask |= NORTH_WEST;
+        }
+        return mask;
+    }
+
+    private static boolean isDestination(int flags, boolean walkable) {
+        return walkable ? isWalkable(flags) : flags != CollisionGrid.MISSING;
+    }
+
+    private static boolean isWalkable(int flags) {
+        return flags != CollisionGrid.MISSING && RealTimeCollisionTile.isWalkable(flags);
+    }
+
+}
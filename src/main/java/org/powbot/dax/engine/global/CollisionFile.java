@@ -0,0 +1,134 @@
+package org.powbot.dax.engine.global;
+
+import org.powbot.dax.engine.collision.CollisionFlags;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Memory mapped world collision file. Every JVM mapping the same file shares the OS page cache.
+ *
+ * Layout, big endian ints:
+ * <pre>
+ * header  magic, version, regionsX, regionsY, planes, chunkCount
+ * index   regionsX * regionsY * planes chunk ordinals, -1 if the region is unmapped on that plane
+ * chunks  chunkCount * 4096 collision flags, indexed by localX * 64 + localY
+ * </pre>
+ * Written by {@link CollisionFileWriter}.
+ */
+public class CollisionFile implements WorldCollision, Closeable {
+
+    public static final int MAGIC = 0x4441584D, VERSION = 1;
+    public static final int REGIONS_X = 256, REGIONS_Y = 256, PLANES = 4;
+    public static final int CHUNK_SIZE = 64, CHUNK_TILES = CHUNK_SIZE * CHUNK_SIZE;
+    static final int HEADER_INTS = 6;
+
+    private final FileChannel channel;
+    private final IntBuffer data;
+    private final int regionsX, regionsY, planes, chunkCount, chunkOffset;
+
+    private CollisionFile(FileChannel channel, IntBuffer data, int regionsX, int regionsY, int planes, int chunkCount) {
+        this.channel = channel;
+        this.data = data;
+        this.regionsX = regionsX;
+        this.regionsY = regionsY;
+        this.planes = planes;
+        this.chunkCount = chunkCount;
+        this.chunkOffset = HEADER_INTS + regionsX * regionsY * planes;
+    }
+
+    public static CollisionFile open(File file) throws IOException {
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            IntBuffer data = buffer.asIntBuffer();
+            if (data.limit() < HEADER_INTS || data.get(0) != MAGIC) {
+                throw new IOException("Not a collision file: " + file);
+            }
+            if (data.get(1) != VERSION) {
+                throw new IOException("Unsupported collision file version " + data.get(1));
+            }
+            int regionsX = data.get(2), regionsY = data.get(3), planes = data.get(4), chunkCount = data.get(5);
+            long expected = HEADER_INTS + (long) regionsX * regionsY * planes + (long) chunkCount * CHUNK_TILES;
+            if (data.limit() < expected) {
+                throw new IOException("Truncated collision file: " + file);
+            }
+            return new CollisionFile(channel, data, regionsX, regionsY, planes, chunkCount);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public int getChunkCount() {
+        return chunkCount;
+    }
+
+    public int getRegionsX() {
+        return regionsX;
+    }
+
+    public int getRegionsY() {
+        return regionsY;
+    }
+
+    public int getPlanes() {
+        return planes;
+    }
+
+    /**
+     * @param regionX x >> 6
+     * @param regionY y >> 6
+     * @param z
+     * @return offset of the chunk in the mapped data, -1 if unmapped.
+     */
+    public int getChunkOffset(int regionX, int regionY, int z) {
+        if (regionX < 0 || regionY < 0 || z < 0 || regionX >= regionsX || regionY >= regionsY || z >= planes) {
+            return -1;
+        }
+        int ordinal = data.get(HEADER_INTS + (z * regionsY + regionY) * regionsX + regionX);
+        return ordinal < 0 ? -1 : chunkOffset + ordinal * CHUNK_TILES;
+    }
+
+    /**
+     * @return copy of the chunk flags or null if unmapped.
+     */
+    public int[] getChunk(int regionX, int regionY, int z) {
+        int offset = getChunkOffset(regionX, regionY, z);
+        if (offset == -1) {
+            return null;
+        }
+        int[] flags = new int[CHUNK_TILES];
+        IntBuffer view = data.duplicate();
+        view.position(offset);
+        view.get(flags);
+        return flags;
+    }
+
+    @Override
+    public int getFlags(int x, int y, int z) {
+        if (x < 0 || y < 0) {
+            return CollisionFlags.CLOSED;
+        }
+        int offset = getChunkOffset(x >> 6, y >> 6, z);
+        if (offset == -1) {
+            return CollisionFlags.CLOSED;
+        }
+        return data.get(offset + (x & 63) * CHUNK_SIZE + (y & 63));
+    }
+
+    @Override
+    public boolean isMapped(int x, int y, int z) {
+        return x >= 0 && y >= 0 && getChunkOffset(x >> 6, y >> 6, z) != -1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
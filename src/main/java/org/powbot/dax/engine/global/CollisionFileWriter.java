@@ -0,0 +1,145 @@
+package org.powbot.dax.engine.global;
+
+import org.powbot.dax.engine.collision.CollisionFlags;
+import org.powbot.dax.engine.collision.RealTimeCollisionTile;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+/**
+ * Builds {@link CollisionFile}s from scene snapshots.
+ */
+public class CollisionFileWriter {
+
+    private final TreeMap<Integer, int[]> chunks;
+
+    public CollisionFileWriter() {
+        chunks = new TreeMap<>();
+    }
+
+    /**
+     * Starts from every chunk of an existing file.
+     */
+    public static CollisionFileWriter from(CollisionFile collisionFile) {
+        CollisionFileWriter writer = new CollisionFileWriter();
+        for (int z = 0; z < collisionFile.getPlanes(); z++) {
+            for (int regionX = 0; regionX < collisionFile.getRegionsX(); regionX++) {
+                for (int regionY = 0; regionY < collisionFile.getRegionsY(); regionY++) {
+                    int[] chunk = collisionFile.getChunk(regionX, regionY, z);
+                    if (chunk != null) {
+                        writer.putChunk(regionX, regionY, z, chunk);
+                    }
+                }
+            }
+        }
+        return writer;
+    }
+
+    public static int chunkKey(int regionX, int regionY, int z) {
+        return (z << 16) | (regionY << 8) | regionX;
+    }
+
+    public void putChunk(int regionX, int regionY, int z, int[] flags) {
+        if (flags.length != CollisionFile.CHUNK_TILES) {
+            throw new IllegalArgumentException("Chunk must have " + CollisionFile.CHUNK_TILES + " tiles");
+        }
+        checkBounds(regionX, regionY, z);
+        chunks.put(chunkKey(regionX, regionY, z), flags);
+    }
+
+    public int[] getChunk(int regionX, int regionY, int z) {
+        return chunks.get(chunkKey(regionX, regionY, z));
+    }
+
+    int[] getChunk(int key) {
+        return chunks.get(key);
+    }
+
+    void putChunk(int key, int[] flags) {
+        putChunk(key & 0xFF, (key >> 8) & 0xFF, key >> 16, flags);
+    }
+
+    /**
+     * Merges a loaded scene into the chunks it overlaps. Tiles flagged {@link CollisionFlags#CLOSED} are the unloaded
+     * scene border and keep their previous value, as do tiles that are not
+     * {@link RealTimeCollisionTile#isInitialized(int) initialized}.
+     *
+     * @param baseX world x of flags[0][0]
+     * @param baseY world y of flags[0][0]
+     * @param z
+     * @param flags collision flags indexed [localX][localY]
+     * @return keys of the chunks whose flags changed, see {@link #chunkKey(int, int, int)}.
+     */
+    public Set<Integer> addScene(int baseX, int baseY, int z, int[][] flags) {
+        Set<Integer> changed = new TreeSet<>();
+        for (int localX = 0; localX < flags.length; localX++) {
+            for (int localY = 0; localY < flags[localX].length; localY++) {
+                int value = flags[localX][localY];
+                if (value == CollisionFlags.CLOSED || !RealTimeCollisionTile.isInitialized(value)) {
+                    continue;
+                }
+                int x = baseX + localX, y = baseY + localY, key = chunkKey(x >> 6, y >> 6, z);
+                int[] chunk = chunks.get(key);
+                if (chunk == null) {
+                    checkBounds(x >> 6, y >> 6, z);
+                    chunk = new int[CollisionFile.CHUNK_TILES];
+                    Arrays.fill(chunk, CollisionFlags.CLOSED);
+                    chunks.put(key, chunk);
+                }
+                int index = (x & 63) * CollisionFile.CHUNK_SIZE + (y & 63);
+                if (chunk[index] != value) {
+                    chunk[index] = value;
+                    changed.add(key);
+                }
+            }
+        }
+        return changed;
+    }
+
+    public int size() {
+        return chunks.size();
+    }
+
+    /**
+     * Writes to a temporary file first and moves it in place, so clients mapping the old file keep a consistent view.
+     */
+    public void write(File file) throws IOException {
+        int regionsX = CollisionFile.REGIONS_X, regionsY = CollisionFile.REGIONS_Y, planes = CollisionFile.PLANES;
+        int[] index = new int[regionsX * regionsY * planes];
+        Arrays.fill(index, -1);
+
+        File temporary = new File(file.getAbsoluteFile().getParentFile(), file.getName() + ".tmp");
+        try (DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporary)))) {
+            int ordinal = 0;
+            for (int key : chunks.keySet()) {
+                int regionX = key & 0xFF, regionY = (key >> 8) & 0xFF, z = key >> 16;
+                index[(z * regionsY + regionY) * regionsX + regionX] = ordinal++;
+            }
+
+            outputStream.writeInt(CollisionFile.MAGIC);
+            outputStream.writeInt(CollisionFile.VERSION);
+            outputStream.writeInt(regionsX);
+            outputStream.writeInt(regionsY);
+            outputStream.writeInt(planes);
+            outputStream.writeInt(chunks.size());
+            for (int value : index) {
+                outputStream.writeInt(value);
+            }
+            for (Map.Entry<Integer, int[]> entry : chunks.entrySet()) {
+                for (int value : entry.getValue()) {
+                    outputStream.writeInt(value);
+                }
+            }
+        }
+        Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void checkBounds(int regionX, int regionY, int z) {
+        if (regionX < 0 || regionY < 0 || z < 0 || regionX >= CollisionFile.REGIONS_X || regionY >= CollisionFile.REGIONS_Y
+                || z >= CollisionFile.PLANES) {
+            throw new IllegalArgumentException("Region out of bounds: " + regionX + ", " + regionY + ", " + z);
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package org.powbot.dax.engine.global;
+
+import org.powbot.api.Tile;
+import org.powbot.api.rt4.Game;
+import org.powbot.dax.engine.Loggable;
+import org.powbot.dax.engine.collision.CollisionDataCollector;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the local world collision database while walking. Polls the loaded map region in the background and, whenever
+ * it changes, merges the scene into the store and appends only the changed 64x64 chunks to a journal. The journal is
+ * replayed on start and folded into {@link WorldGraph#COLLISION_FILE} by {@link #compact()}, on {@link #stop()} and
+ * whenever it holds {@link #COMPACT_RECORDS} records. The {@link GlobalPathFinder} reloads the collision file after a
+ * compaction if it was loaded from the same directory.
+ *
+ * Journal records: chunk key ({@link CollisionFileWriter#chunkKey(int, int, int)}) followed by 4096 flags.
+ *
+ * Several clients may harvest into the same directory. Every append, replay and compaction holds a {@link FileLock} on
+ * the journal, so records never interleave and the journal is not truncated while another process appends to it.
+ * Records hold whole chunks, so before merging a scene the records other processes appended since this one last read
+ * the journal are replayed into the store, and the store is reloaded if another process compacted. A record then never
+ * carries stale values for the tiles of its chunk outside the scene.
+ */
+public class CollisionHarvester implements Loggable {
+
+    public static final String JOURNAL_FILE = "collision.journal";
+
+    /**
+     * Records after which the journal is compacted, 16 MB.
+     */
+    public static final int COMPACT_RECORDS = 1024;
+
+    private static final long POLL_INTERVAL = 600;
+    private static final int RECORD_BYTES = (CollisionFile.CHUNK_TILES + 1) * 4;
+
+    private static CollisionHarvester collisionHarvester;
+
+    public static CollisionHarvester getInstance() {
+        return collisionHarvester != null ? collisionHarvester : (collisionHarvester = new CollisionHarvester());
+    }
+
+    private ScheduledExecutorService executor;
+    private File directory;
+    private CollisionFileWriter store;
+    private FileChannel journal;
+    /**
+     * Journal bytes replayed into the store, and the collision file the store was loaded from.
+     */
+    private long journalRead;
+    private String collisionStamp;
+    private int lastOffsetX = -1, lastOffsetY = -1, lastFloor = -1;
+
+    private CollisionHarvester() {
+
+    }
+
+    /**
+     * Loads the existing collision file and journal from the directory and starts polling.
+     *
+     * @param directory
+     * @throws IOException
+     */
+    public synchronized void start(File directory) throws IOException {
+        if (executor != null) {
+            return;
+        }
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Unable to create " + directory);
+        }
+        this.directory = directory;
+        this.journal = FileChannel.open(new File(directory, JOURNAL_FILE).toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try (FileLock ignored = journal.lock()) {
+            this.store = load();
+        } catch (IOException | RuntimeException e) {
+            closeJournal();
+            throw e;
+        }
+        this.lastOffsetX = this.lastOffsetY = this.lastFloor = -1;
+
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dax-collision-harvester");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::poll, 0, POLL_INTERVAL, TimeUnit.MILLISECONDS);
+        log("Harvesting collision data into " + directory + ", " + store.size() + " chunks known");
+    }
+
+    public synchronized void stop() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdownNow();
+        executor = null;
+        try {
+            compact();
+        } catch (IOException e) {
+            log(Level.WARNING, "Failed to compact collision journal: " + e.getMessage());
+        }
+        closeJournal();
+    }
+
+    public synchronized boolean isRunning() {
+        return executor != null;
+    }
+
+    /**
+     * Merges the current scene when the loaded region changed since it was last harvested. A scene still loading is
+     * left for a later poll.
+     */
+    public synchronized void poll() {
+        if (journal == null) {
+            return;
+        }
+        try {
+            if (!Game.loggedIn()) {
+                return;
+            }
+            int floor = Game.floor();
+            Tile mapOffset = Game.mapOffset();
+            if (mapOffset.x() == lastOffsetX && mapOffset.y() == lastOffsetY && floor == lastFloor) {
+                return;
+            }
+            int[][] flags = CollisionDataCollector.captureScene(floor);
+            if (!CollisionDataCollector.isLoaded(flags)) {
+                return;
+            }
+            harvest(mapOffset.x(), mapOffset.y(), floor, flags);
+            lastOffsetX = mapOffset.x();
+            lastOffsetY = mapOffset.y();
+            lastFloor = floor;
+        } catch (Exception e) {
+            log(Level.WARNING, "Failed to harvest collision: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return number of chunks written to the journal.
+     */
+    public synchronized int harvest(int baseX, int baseY, int floor, int[][] flags) throws IOException {
+        if (journal == null) {
+            throw new IllegalStateException("Collision harvester is not started");
+        }
+        Set<Integer> changed;
+        long records;
+        try (FileLock ignored = journal.lock()) {
+            sync();
+            changed = store.addScene(baseX, baseY, floor, flags);
+            if (changed.isEmpty()) {
+                return 0;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(changed.size() * RECORD_BYTES);
+            for (int key : changed) {
+                buffer.putInt(key);
+                for (int value : store.getChunk(key)) {
+                    buffer.putInt(value);
+                }
+            }
+            buffer.flip();
+            journal.position(journal.size());
+            while (buffer.hasRemaining()) {
+                journal.write(buffer);
+            }
+            journalRead = journal.size();
+            records = journalRead / RECORD_BYTES;
+        }
+        log(Level.VERBOSE, "Journaled " + changed.size() + " changed chunks at " + baseX + ", " + baseY + ", " + floor);
+        if (records >= COMPACT_RECORDS) {
+            compact();
+        }
+        return changed.size();
+    }
+
+    /**
+     * Folds the collision file and the journal, including the records of other processes, into a new collision file
+     * and truncates the journal.
+     */
+    public synchronized void compact() throws IOException {
+        if (journal == null) {
+            throw new IllegalStateException("Collision harvester is not started");
+        }
+        try (FileLock ignored = journal.lock()) {
+            CollisionFileWriter merged = load();
+            merged.write(new File(directory, WorldGraph.COLLISION_FILE));
+            journal.truncate(0);
+            store = merged;
+            journalRead = 0;
+            collisionStamp = getCollisionStamp();
+        }
+        log("Compacted " + store.size() + " chunks into " + WorldGraph.COLLISION_FILE);
+        GlobalPathFinder pathFinder = GlobalPathFinder.getInstance();
+        if (directory.getAbsoluteFile().equals(pathFinder.getDirectory())) {
+            pathFinder.load(directory);
+        }
+    }
+
+    /**
+     * @return number of records in the journal, of every process.
+     */
+    public synchronized long getJournalRecords() throws IOException {
+        return journal != null ? journal.size() / RECORD_BYTES : 0;
+    }
+
+    /**
+     * Brings the store up to date with the records other processes appended, reloading it if another process compacted
+     * the journal into a new collision file. The journal lock has to be held.
+     */
+    private void sync() throws IOException {
+        if (journal.size() < journalRead || !getCollisionStamp().equals(collisionStamp)) {
+            store = load();
+        } else {
+            replay(store, journalRead);
+        }
+    }
+
+    /**
+     * Reads the collision file and replays the journal, the journal lock has to be held.
+     */
+    private CollisionFileWriter load() throws IOException {
+        File collisionFile = new File(directory, WorldGraph.COLLISION_FILE);
+        collisionStamp = getCollisionStamp();
+        CollisionFileWriter writer;
+        if (collisionFile.exists()) {
+            try (CollisionFile file = CollisionFile.open(collisionFile)) {
+                writer = CollisionFileWriter.from(file);
+            }
+        } else {
+            writer = new CollisionFileWriter();
+        }
+        replay(writer, 0);
+        return writer;
+    }
+
+    /**
+     * Applies every complete journal record from the offset on, a record cut short by a crash is truncated away.
+     */
+    private void replay(CollisionFileWriter writer, long offset) throws IOException {
+        long size = journal.size(), records = (size - offset) / RECORD_BYTES;
+        DataInputStream inputStream = new DataInputStream(new BufferedInputStream(Channels.newInputStream(journal.position(offset))));
+        for (long i = 0; i < records; i++) {
+            int key = inputStream.readInt();
+            int[] flags = new int[CollisionFile.CHUNK_TILES];
+            for (int j = 0; j < flags.length; j++) {
+                flags[j] = inputStream.readInt();
+            }
+            writer.putChunk(key, flags);
+        }
+        journalRead = offset + records * RECORD_BYTES;
+        if (size > journalRead) {
+            journal.truncate(journalRead);
+        }
+    }
+
+    /**
+     * @return identity of the collision file, which changes whenever a compaction replaces it.
+     */
+    private String getCollisionStamp() throws IOException {
+        File collisionFile = new File(directory, WorldGraph.COLLISION_FILE);
+        if (!collisionFile.exists()) {
+            return "none";
+        }
+        BasicFileAttributes attributes = Files.readAttributes(collisionFile.toPath(), BasicFileAttributes.class);
+        return attributes.fileKey() + ":" + attributes.lastModifiedTime().toMillis() + ":" + attributes.size();
+    }
+
+    private void closeJournal() {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            log(Level.WARNING, "Failed to close collision journal: " + e.getMessage());
+        }
+        journal = null;
+    }
+
+    @Override
+    public String getName() {
+        return "CollisionHarvester";
+    }
+}
@@ -0,0 +1,379 @@
+package org.powbot.dax.engine.global;
+
+import org.powbot.api.Tile;
+import org.powbot.dax.api.models.*;
+import org.powbot.dax.engine.Loggable;
+import org.powbot.dax.shared.PackedTile;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * In process replacement for the walker server. Answers path requests with Dijkstra over a {@link WorldGraph} loaded
+ * from disk.
+ *
+ * The search runs backwards from the destinations, so all requests of a bulk request ending at the same tile, the
+ * player's own and one per usable teleport, are answered by a single search. Transports can cover any distance for a
+ * small cost, which makes every distance based heuristic overestimate, so none is used.
+ */
+public class GlobalPathFinder implements Loggable {
+
+    private static final int SEARCH_LIMIT = 750000;
+    private static final int[][] DIRECTIONS = {{0, 1}, {1, 0}, {0, -1}, {-1, 0}, {1, 1}, {1, -1}, {-1, -1}, {-1, 1}};
+
+    private static GlobalPathFinder globalPathFinder;
+
+    public static GlobalPathFinder getInstance() {
+        return globalPathFinder != null ? globalPathFinder : (globalPathFinder = new GlobalPathFinder());
+    }
+
+    private volatile WorldGraph worldGraph;
+    private volatile File directory;
+
+    private GlobalPathFinder() {
+
+    }
+
+    /**
+     * Loads the graph of the directory, replacing the current one.
+     */
+    public synchronized void load(File directory) throws IOException {
+        setWorldGraph(WorldGraph.load(directory));
+        this.directory = directory.getAbsoluteFile();
+        log("Loaded world graph from " + directory);
+    }
+
+    public synchronized void setWorldGraph(WorldGraph worldGraph) {
+        WorldGraph previous = this.worldGraph;
+        this.worldGraph = worldGraph;
+        this.directory = null;
+        if (previous != null && previous != worldGraph) {
+            try {
+                previous.close();
+            } catch (IOException e) {
+                log(Level.WARNING, "Failed to close world graph: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @return directory the graph was loaded from, null if it was not loaded from one.
+     */
+    public File getDirectory() {
+        return directory;
+    }
+
+    public WorldGraph getWorldGraph() {
+        return worldGraph;
+    }
+
+    public boolean isLoaded() {
+        return worldGraph != null;
+    }
+
+    public List<PathResult> getPaths(BulkPathRequest bulkPathRequest) {
+        List<PathRequestPair> pairs = bulkPathRequest.getRequests();
+        PathResult[] pathResults = new PathResult[pairs.size()];
+        Map<Integer, List<Integer>> byEnd = new LinkedHashMap<>();
+        for (int i = 0; i < pairs.size(); i++) {
+            Point3D end = pairs.get(i).getEnd();
+            if (end == null) {
+                pathResults[i] = new PathResult(PathStatus.NO_WEB_PATH);
+                continue;
+            }
+            byEnd.computeIfAbsent(PackedTile.pack(end.getX(), end.getY(), end.getZ()), k -> new ArrayList<>()).add(i);
+        }
+        for (List<Integer> group : byEnd.values()) {
+            List<Point3D> starts = new ArrayList<>(group.size());
+            for (int i : group) {
+                starts.add(pairs.get(i).getStart());
+            }
+            List<PathResult> groupResults = findPaths(starts, Collections.singletonList(pairs.get(group.get(0)).getEnd()),
+                    bulkPathRequest.getPlayer());
+            for (int i = 0; i < group.size(); i++) {
+                pathResults[group.get(i)] = groupResults.get(i);
+            }
+        }
+        return Arrays.asList(pathResults);
+    }
+
+    public List<PathResult> getBankPaths(BulkBankPathRequest bulkBankPathRequest) {
+        List<BankPathRequestPair> pairs = bulkBankPathRequest.getRequests();
+        PathResult[] pathResults = new PathResult[pairs.size()];
+        Map<RunescapeBank, List<Integer>> byBank = new LinkedHashMap<>();
+        for (int i = 0; i < pairs.size(); i++) {
+            byBank.computeIfAbsent(pairs.get(i).getBank(), k -> new ArrayList<>()).add(i);
+        }
+        for (Map.Entry<RunescapeBank, List<Integer>> entry : byBank.entrySet()) {
+            List<Point3D> banks = new ArrayList<>();
+            if (entry.getKey() != null) {
+                banks.add(Point3D.fromTile(entry.getKey().getPosition()));
+            } else {
+                for (RunescapeBank bank : RunescapeBank.values()) {
+                    banks.add(Point3D.fromTile(bank.getPosition()));
+                }
+            }
+            List<Point3D> starts = new ArrayList<>(entry.getValue().size());
+            for (int i : entry.getValue()) {
+                starts.add(pairs.get(i).getStart());
+            }
+            List<PathResult> groupResults = findPaths(starts, banks, bulkBankPathRequest.getPlayer());
+            for (int i = 0; i < entry.getValue().size(); i++) {
+                pathResults[entry.getValue().get(i)] = groupResults.get(i);
+            }
+        }
+        return Arrays.asList(pathResults);
+    }
+
+    public PathResult findPath(Tile start, Tile end, PlayerDetails player) {
+        return findPath(Point3D.fromTile(start), Collections.singletonList(Point3D.fromTile(end)), player);
+    }
+
+    /**
+     * @param start
+     * @param goals
+     * @param player details the transport requirements are checked against
+     * @return shortest path from start to whichever goal is closest.
+     */
+    public PathResult findPath(Point3D start, List<Point3D> goals, PlayerDetails player) {
+        return findPaths(Collections.singletonList(start), goals, player).get(0);
+    }
+
+    /**
+     * Searches backwards from all goals at once until every start is reached. Transports whose requirements the player
+     * does not meet are left out, without player details only transports without requirements are used.
+     *
+     * @param starts
+     * @param goals
+     * @param player
+     * @return for each start the shortest path to whichever goal is closest to it.
+     */
+    public List<PathResult> findPaths(List<Point3D> starts, List<Point3D> goals, PlayerDetails player) {
+        WorldGraph graph = worldGraph;
+        List<PathResult> pathResults = new ArrayList<>(starts.size());
+        if (graph == null || goals.isEmpty()) {
+            for (int i = 0; i < starts.size(); i++) {
+                pathResults.add(new PathResult(PathStatus.NO_WEB_PATH));
+            }
+            return pathResults;
+        }
+
+        ReverseSearch search = ReverseSearch.begin(graph, player);
+        for (Point3D goal : goals) {
+            if (goal != null && graph.isMapped(goal.getX(), goal.getY(), goal.getZ())) {
+                search.addGoal(PackedTile.pack(goal.getX(), goal.getY(), goal.getZ()));
+            }
+        }
+        int targets = 0;
+        for (Point3D start : starts) {
+            if (start != null && graph.isMapped(start.getX(), start.getY(), start.getZ())
+                    && search.addTarget(PackedTile.pack(start.getX(), start.getY(), start.getZ()))) {
+                targets++;
+            }
+        }
+        search.run(targets);
+
+        for (Point3D start : starts) {
+            if (start == null) {
+                pathResults.add(new PathResult(PathStatus.NO_WEB_PATH));
+            } else if (!graph.isMapped(start.getX(), start.getY(), start.getZ())) {
+                pathResults.add(new PathResult(PathStatus.UNMAPPED_REGION));
+            } else {
+                pathResults.add(search.getResult(PackedTile.pack(start.getX(), start.getY(), start.getZ())));
+            }
+        }
+        return pathResults;
+    }
+
+    @Override
+    public String getName() {
+        return "GlobalPathFinder";
+    }
+
+    /**
+     * Dijkstra over reversed edges. Costs, the next tile towards a goal and the tile state are kept in 64x64 chunks
+     * allocated as the search reaches them, the open set is a binary heap of packed cost and tile.
+     */
+    private static class ReverseSearch {
+
+        private static final int CHUNKS = CollisionFile.PLANES << 16, CLOSED = 1, TARGET = 2;
+
+        /**
+         * Chunk tables of the thread, kept between searches. A chunk only counts while its stamp matches the current
+         * generation and is cleared when a search first touches it, so starting a search allocates nothing.
+         */
+        private static final ThreadLocal<ReverseSearch> searches = ThreadLocal.withInitial(ReverseSearch::new);
+
+        private WorldGraph graph;
+        private PlayerDetails player;
+        private final Map<Transport, Boolean> usable = new IdentityHashMap<>();
+        private final int[][] costs = new int[CHUNKS][], next = new int[CHUNKS][];
+        private final byte[][] states = new byte[CHUNKS][];
+        private final int[] stamps = new int[CHUNKS];
+        private int generation;
+        private long[] heap = new long[1024];
+        private int size;
+        private boolean exceeded;
+
+        private ReverseSearch() {
+
+        }
+
+        /**
+         * @return search of the thread, reset for a new one.
+         */
+        private static ReverseSearch begin(WorldGraph graph, PlayerDetails player) {
+            ReverseSearch search = searches.get();
+            search.graph = graph;
+            search.player = player;
+            search.usable.clear();
+            search.size = 0;
+            search.exceeded = false;
+            if (++search.generation == Integer.MAX_VALUE) {
+                Arrays.fill(search.stamps, 0);
+                search.generation = 1;
+            }
+            return search;
+        }
+
+        private void addGoal(int key) {
+            relax(key, -1, 0);
+        }
+
+        /**
+         * @return whether the tile was not a target yet.
+         */
+        private boolean addTarget(int key) {
+            int chunk = allocate(key), index = index(key);
+            if ((states[chunk][index] & TARGET) != 0) {
+                return false;
+            }
+            states[chunk][index] |= TARGET;
+            return true;
+        }
+
+        private void run(int targets) {
+            int expanded = 0;
+            while (targets > 0 && size > 0) {
+                long entry = pop();
+                int key = (int) entry, cost = (int) (entry >>> 32);
+                int chunk = chunk(key), index = index(key);
+                if ((states[chunk][index] & CLOSED) != 0) {
+                    continue;
+                }
+                states[chunk][index] |= CLOSED;
+                if ((states[chunk][index] & TARGET) != 0) {
+                    targets--;
+                }
+                if (++expanded > SEARCH_LIMIT) {
+                    exceeded = true;
+                    return;
+                }
+
+                int x = PackedTile.unpackX(key), y = PackedTile.unpackY(key), z = PackedTile.unpackZ(key);
+                for (int[] direction : DIRECTIONS) {
+                    int fromX = x - direction[0], fromY = y - direction[1];
+                    if (fromX < 0 || fromY < 0 || !graph.canMove(fromX, fromY, z, direction[0], direction[1])) {
+                        continue;
+                    }
+                    relax(PackedTile.pack(fromX, fromY, z), key, cost + 1);
+                }
+                for (Transport transport : graph.getTransportsTo(x, y, z)) {
+                    if (!isUsable(transport)) {
+                        continue;
+                    }
+                    relax(PackedTile.pack(transport.getSourceX(), transport.getSourceY(), transport.getSourceZ()), key,
+                            cost + transport.getCost());
+                }
+            }
+        }
+
+        private boolean isUsable(Transport transport) {
+            if (transport.getRequirements().isEmpty()) {
+                return true;
+            }
+            return usable.computeIfAbsent(transport, t -> t.isUsable(player));
+        }
+
+        private PathResult getResult(int key) {
+            int chunk = chunk(key);
+            if (stamps[chunk] != generation || (states[chunk][index(key)] & CLOSED) == 0) {
+                return new PathResult(exceeded ? PathStatus.EXCEEDED_SEARCH_LIMIT : PathStatus.UNREACHABLE);
+            }
+            List<Point3D> path = new ArrayList<>();
+            for (int current = key; current != -1; current = next[chunk(current)][index(current)]) {
+                path.add(new Point3D(PackedTile.unpackX(current), PackedTile.unpackY(current), PackedTile.unpackZ(current)));
+            }
+            return new PathResult(PathStatus.SUCCESS, path, costs[chunk][index(key)]);
+        }
+
+        private void relax(int key, int towards, int cost) {
+            int chunk = allocate(key), index = index(key);
+            if ((states[chunk][index] & CLOSED) != 0 || costs[chunk][index] <= cost) {
+                return;
+            }
+            costs[chunk][index] = cost;
+            next[chunk][index] = towards;
+            push(((long) cost << 32) | (key & 0xFFFFFFFFL));
+        }
+
+        private int allocate(int key) {
+            int chunk = chunk(key);
+            if (stamps[chunk] == generation) {
+                return chunk;
+            }
+            if (costs[chunk] == null) {
+                costs[chunk] = new int[CollisionFile.CHUNK_TILES];
+                next[chunk] = new int[CollisionFile.CHUNK_TILES];
+                states[chunk] = new byte[CollisionFile.CHUNK_TILES];
+            }
+            Arrays.fill(costs[chunk], Integer.MAX_VALUE);
+            Arrays.fill(states[chunk], (byte) 0);
+            stamps[chunk] = generation;
+            return chunk;
+        }
+
+        private static int chunk(int key) {
+            return (PackedTile.unpackZ(key) << 16) | ((PackedTile.unpackY(key) >> 6) << 8) | (PackedTile.unpackX(key) >> 6);
+        }
+
+        private static int index(int key) {
+            return (PackedTile.unpackX(key) & 63) * CollisionFile.CHUNK_SIZE + (PackedTile.unpackY(key) & 63);
+        }
+
+        private void push(long entry) {
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (heap[parent] <= entry) {
+                    break;
+                }
+                heap[i] = heap[parent];
+                i = parent;
+            }
+            heap[i] = entry;
+        }
+
+        private long pop() {
+            long top = heap[0], last = heap[--size];
+            int i = 0, half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && heap[child + 1] < heap[child]) {
+                    child++;
+                }
+                if (last <= heap[child]) {
+                    break;
+                }
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = last;
+            return top;
+        }
+    }
+}
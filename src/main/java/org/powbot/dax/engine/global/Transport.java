@@ -0,0 +1,104 @@
+package org.powbot.dax.engine.global;
+
+import org.powbot.dax.api.models.PlayerDetails;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One way link between two tiles that is not plain walking, e.g. stairs, ladders, agility shortcuts or ships.
+ */
+public class Transport {
+
+    private final int sourceX, sourceY, sourceZ, destinationX, destinationY, destinationZ, cost;
+    private final List<TransportRequirement> requirements;
+
+    public Transport(int sourceX, int sourceY, int sourceZ, int destinationX, int destinationY, int destinationZ, int cost) {
+        this(sourceX, sourceY, sourceZ, destinationX, destinationY, destinationZ, cost, Collections.emptyList());
+    }
+
+    public Transport(int sourceX, int sourceY, int sourceZ, int destinationX, int destinationY, int destinationZ, int cost,
+                     List<TransportRequirement> requirements) {
+        this.sourceX = sourceX;
+        this.sourceY = sourceY;
+        this.sourceZ = sourceZ;
+        this.destinationX = destinationX;
+        this.destinationY = destinationY;
+        this.destinationZ = destinationZ;
+        this.cost = cost;
+        this.requirements = Collections.unmodifiableList(new ArrayList<>(requirements));
+    }
+
+    /**
+     * @param line "sourceX sourceY sourceZ destinationX destinationY destinationZ cost [requirement...]", requirements
+     *             as in {@link TransportRequirement}
+     * @return parsed transport.
+     */
+    public static Transport parse(String line) {
+        String[] parts = line.trim().split("\\s+");
+        if (parts.length < 7) {
+            throw new IllegalArgumentException("Invalid transport: " + line);
+        }
+        int[] values = new int[7];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Integer.parseInt(parts[i]);
+        }
+        List<TransportRequirement> requirements = new ArrayList<>(parts.length - values.length);
+        for (int i = values.length; i < parts.length; i++) {
+            requirements.add(TransportRequirement.parse(parts[i]));
+        }
+        return new Transport(values[0], values[1], values[2], values[3], values[4], values[5], values[6], requirements);
+    }
+
+    public int getSourceX() {
+        return sourceX;
+    }
+
+    public int getSourceY() {
+        return sourceY;
+    }
+
+    public int getSourceZ() {
+        return sourceZ;
+    }
+
+    public int getDestinationX() {
+        return destinationX;
+    }
+
+    public int getDestinationY() {
+        return destinationY;
+    }
+
+    public int getDestinationZ() {
+        return destinationZ;
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    public List<TransportRequirement> getRequirements() {
+        return requirements;
+    }
+
+    /**
+     * @return whether the player meets every requirement, only transports without any are usable without details.
+     */
+    public boolean isUsable(PlayerDetails player) {
+        for (TransportRequirement requirement : requirements) {
+            if (!requirement.isMet(player)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "Transport[(" + sourceX + ", " + sourceY + ", " + sourceZ + ") -> ("
+                + destinationX + ", " + destinationY + ", " + destinationZ + "), " + cost
+                + (requirements.isEmpty() ? "" : ", " + requirements) + "]";
+    }
+}
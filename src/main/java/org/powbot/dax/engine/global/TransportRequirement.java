@@ -0,0 +1,129 @@
+package org.powbot.dax.engine.global;
+
+import org.powbot.dax.api.models.IntPair;
+import org.powbot.dax.api.models.PlayerDetails;
+
+import java.util.List;
+
+/**
+ * Something a player needs to use a {@link Transport}, checked against the {@link PlayerDetails} of a path request.
+ *
+ * Written after the cost of a transport, one token each:
+ * <pre>
+ * agility=58      skill level of at least 58, skills are named as the fields of PlayerDetails
+ * setting:176=10  varp 176 of at least 10, quest progress is tracked in these
+ * varbit:4538=1   varbit 4538 of at least 1
+ * item:995=30     at least 30 coins carried or worn
+ * members         members world
+ * </pre>
+ */
+public class TransportRequirement {
+
+    public enum Type {
+        SKILL,
+        SETTING,
+        VARBIT,
+        ITEM,
+        MEMBERS
+    }
+
+    private final Type type;
+    private final String skill;
+    private final int id, value;
+
+    private TransportRequirement(Type type, String skill, int id, int value) {
+        this.type = type;
+        this.skill = skill;
+        this.id = id;
+        this.value = value;
+    }
+
+    public static TransportRequirement parse(String token) {
+        if (token.equals("members")) {
+            return new TransportRequirement(Type.MEMBERS, null, 0, 0);
+        }
+        int separator = token.indexOf('=');
+        if (separator <= 0) {
+            throw new IllegalArgumentException("Invalid transport requirement: " + token);
+        }
+        String name = token.substring(0, separator);
+        int value = Integer.parseInt(token.substring(separator + 1));
+        int colon = name.indexOf(':');
+        if (colon == -1) {
+            return new TransportRequirement(Type.SKILL, name, 0, value);
+        }
+        int id = Integer.parseInt(name.substring(colon + 1));
+        switch (name.substring(0, colon)) {
+            case "setting":
+                return new TransportRequirement(Type.SETTING, null, id, value);
+            case "varbit":
+                return new TransportRequirement(Type.VARBIT, null, id, value);
+            case "item":
+                return new TransportRequirement(Type.ITEM, null, id, value);
+            default:
+                throw new IllegalArgumentException("Invalid transport requirement: " + token);
+        }
+    }
+
+    /**
+     * @return whether the player meets the requirement, false without player details.
+     */
+    public boolean isMet(PlayerDetails player) {
+        if (player == null) {
+            return false;
+        }
+        switch (type) {
+            case SKILL:
+                return player.getLevel(skill) >= value;
+            case SETTING:
+                return getValue(player.getSetting(), id) >= value;
+            case VARBIT:
+                return getValue(player.getVarbit(), id) >= value;
+            case ITEM:
+                return getCount(player.getInventory(), id) + getCount(player.getEquipment(), id) >= value;
+            case MEMBERS:
+                return player.isMember();
+            default:
+                return false;
+        }
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    private static int getValue(List<IntPair> pairs, int key) {
+        if (pairs != null) {
+            for (IntPair pair : pairs) {
+                if (pair.getKey() == key) {
+                    return pair.getValue();
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static long getCount(List<IntPair> items, int id) {
+        long count = 0;
+        if (items != null) {
+            for (IntPair item : items) {
+                if (item.getKey() == id) {
+                    count += Math.max(item.getValue(), 1);
+                }
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        switch (type) {
+            case SKILL:
+                return skill + "=" + value;
+            case MEMBERS:
+                return "members";
+            default:
+                return type.name().toLowerCase() + ":" + id + "=" + value;
+        }
+    }
+}
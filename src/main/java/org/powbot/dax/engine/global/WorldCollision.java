@@ -0,0 +1,18 @@
+package org.powbot.dax.engine.global;
+
+/**
+ * Read only world collision data, flags as defined in {@link org.powbot.dax.engine.collision.CollisionFlags}.
+ */
+public interface WorldCollision {
+
+    /**
+     * @param x
+     * @param y
+     * @param z
+     * @return collision flags of the tile. {@link org.powbot.dax.engine.collision.CollisionFlags#CLOSED} if unmapped.
+     */
+    int getFlags(int x, int y, int z);
+
+    boolean isMapped(int x, int y, int z);
+
+}
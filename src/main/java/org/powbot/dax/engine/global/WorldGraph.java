@@ -0,0 +1,133 @@
+package org.powbot.dax.engine.global;
+
+import org.powbot.dax.engine.collision.RealTimeCollisionTile;
+import org.powbot.dax.shared.PackedTile;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * World collision together with the transports between tiles, the graph searched by {@link GlobalPathFinder}.
+ */
+public class WorldGraph implements Closeable {
+
+    public static final String COLLISION_FILE = "collision.bin", TRANSPORTS_FILE = "transports.txt";
+
+    private final WorldCollision collision;
+    private final Map<Integer, List<Transport>> transports, transportsTo;
+
+    public WorldGraph(WorldCollision collision, Collection<Transport> transports) {
+        this.collision = collision;
+        this.transports = new HashMap<>();
+        this.transportsTo = new HashMap<>();
+        for (Transport transport : transports) {
+            this.transports.computeIfAbsent(PackedTile.pack(transport.getSourceX(), transport.getSourceY(), transport.getSourceZ()),
+                    k -> new ArrayList<>()).add(transport);
+            this.transportsTo.computeIfAbsent(PackedTile.pack(transport.getDestinationX(), transport.getDestinationY(), transport.getDestinationZ()),
+                    k -> new ArrayList<>()).add(transport);
+        }
+    }
+
+    /**
+     * @param directory containing {@link #COLLISION_FILE} and optionally {@link #TRANSPORTS_FILE}
+     * @return loaded graph.
+     * @throws IOException
+     */
+    public static WorldGraph load(File directory) throws IOException {
+        WorldCollision collision = CollisionFile.open(new File(directory, COLLISION_FILE));
+        File transportsFile = new File(directory, TRANSPORTS_FILE);
+        return new WorldGraph(collision, transportsFile.exists() ? loadTransports(transportsFile) : Collections.emptyList());
+    }
+
+    public static List<Transport> loadTransports(File file) throws IOException {
+        List<Transport> transports = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                transports.add(Transport.parse(line));
+            }
+        }
+        return transports;
+    }
+
+    public WorldCollision getCollision() {
+        return collision;
+    }
+
+    public List<Transport> getTransports(int x, int y, int z) {
+        List<Transport> list = transports.get(PackedTile.pack(x, y, z));
+        return list != null ? list : Collections.emptyList();
+    }
+
+    /**
+     * @return transports leading to the tile.
+     */
+    public List<Transport> getTransportsTo(int x, int y, int z) {
+        List<Transport> list = transportsTo.get(PackedTile.pack(x, y, z));
+        return list != null ? list : Collections.emptyList();
+    }
+
+    public boolean isMapped(int x, int y, int z) {
+        return collision.isMapped(x, y, z);
+    }
+
+    public boolean isWalkable(int x, int y, int z) {
+        return RealTimeCollisionTile.isWalkable(collision.getFlags(x, y, z));
+    }
+
+    /**
+     * Closes the collision file. Its mapping stays readable until it is garbage collected, so searches still running on
+     * this graph are not affected.
+     */
+    @Override
+    public void close() throws IOException {
+        if (collision instanceof Closeable) {
+            ((Closeable) collision).close();
+        }
+    }
+
+    /**
+     * Movement rules of {@link org.powbot.dax.engine.local.Reachable.Direction}, the destination has to be walkable.
+     *
+     * @return whether one step from x, y in direction dx, dy is possible.
+     */
+    public boolean canMove(int x, int y, int z, int dx, int dy) {
+        int flags = collision.getFlags(x, y, z);
+        if (dx == 0 || dy == 0) {
+            return canMoveStraight(flags, x, y, z, dx, dy);
+        }
+        if (!canMoveStraight(flags, x, y, z, dx, 0) || !canMoveStraight(flags, x, y, z, 0, dy)) {
+            return false;
+        }
+        int horizontal = collision.getFlags(x + dx, y, z), vertical = collision.getFlags(x, y + dy, z);
+        if (dy > 0 ? RealTimeCollisionTile.blockedNorth(horizontal) : RealTimeCollisionTile.blockedSouth(horizontal)) {
+            return false;
+        }
+        if (dx > 0 ? RealTimeCollisionTile.blockedEast(vertical) : RealTimeCollisionTile.blockedWest(vertical)) {
+            return false;
+        }
+        return isWalkable(x + dx, y + dy, z);
+    }
+
+    private boolean canMoveStraight(int flags, int x, int y, int z, int dx, int dy) {
+        if (dx > 0 && RealTimeCollisionTile.blockedEast(flags)) {
+            return false;
+        }
+        if (dx < 0 && RealTimeCollisionTile.blockedWest(flags)) {
+            return false;
+        }
+        if (dy > 0 && RealTimeCollisionTile.blockedNorth(flags)) {
+            return false;
+        }
+        if (dy < 0 && RealTimeCollisionTile.blockedSouth(flags)) {
+            return false;
+        }
+        return isWalkable(x + dx, y + dy, z);
+    }
+
+}
@@ -0,0 +1,175 @@
+package org.powbot.dax.engine.local;
+
+import org.powbot.api.Tile;
+import org.powbot.api.rt4.Players;
+import org.powbot.dax.engine.collision.CollisionDataCollector;
+import org.powbot.dax.engine.collision.SceneMask;
+import org.powbot.dax.engine.collision.TraversalMask;
+import org.powbot.dax.shared.SearchState;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A* over the {@link SceneMask} of the loaded scene. Every step takes one game tick, straight or diagonal, so the
+ * Chebyshev distance is a consistent heuristic and paths are as short as breadth first ones while far fewer tiles are
+ * expanded. Costs, f and parents of the {@link AStarNode} model are kept in the thread's {@link SearchState}, the open
+ * set is a binary heap of packed f, h and index.
+ *
+ * Jump point search is not used, directional walls break the symmetry its pruning relies on.
+ */
+public class AStar {
+
+    public static final int NO_LIMIT = -1;
+
+    private static final int INDEX_BITS = 24;
+
+    /**
+     * @return path from the player to the destination including both, null if there is none inside the scene.
+     */
+    public static List<Tile> findPath(Tile destination) {
+        return findPath(destination, NO_LIMIT);
+    }
+
+    /**
+     * Searches the {@link SceneMask#ofGrid(int)} the player field is built on, without flooding the scene.
+     *
+     * @param maxCost steps after which the search gives up, {@link #NO_LIMIT} for none
+     */
+    public static List<Tile> findPath(Tile destination, int maxCost) {
+        CollisionDataCollector.refreshRealTimeCollision();
+        Tile player = Players.local().tile();
+        return findPath(SceneMask.ofGrid(player.floor()), player, destination, maxCost);
+    }
+
+    /**
+     * @return path from start to destination including both, null if the destination is not walkable or not
+     * reachable within maxCost steps.
+     */
+    public static List<Tile> findPath(SceneMask scene, Tile start, Tile destination, int maxCost) {
+        if (start.floor() != scene.getFloor() || destination.floor() != scene.getFloor()) {
+            return null;
+        }
+        int startX = start.getX() - scene.getBaseX(), startY = start.getY() - scene.getBaseY(),
+                goalX = destination.getX() - scene.getBaseX(), goalY = destination.getY() - scene.getBaseY();
+        if (!scene.contains(startX, startY) || !scene.isWalkable(goalX, goalY)) {
+            return null;
+        }
+        int height = scene.getHeight();
+        int startIndex = startX * height + startY, goal = goalX * height + goalY;
+        SearchState state = SearchState.get().begin(scene.getBaseX(), scene.getBaseY(), scene.getWidth(), height);
+        OpenSet open = new OpenSet();
+
+        state.visit(startIndex);
+        int startHeuristic = heuristic(startX, startY, goalX, goalY);
+        state.setF(startIndex, startHeuristic);
+        open.push(key(startHeuristic, startHeuristic, startIndex));
+
+        while (!open.isEmpty()) {
+            int current = (int) (open.pop() & ((1 << INDEX_BITS) - 1));
+            if (state.isMarked(current)) {
+                continue;
+            }
+            state.mark(current);
+            if (current == goal) {
+                return toPath(state, scene, goal);
+            }
+            int cost = state.getCost(current) + 1;
+            if (maxCost != NO_LIMIT && cost > maxCost) {
+                continue;
+            }
+            int x = current / height, y = current % height;
+            int mask = scene.get(x, y);
+            for (int i = 0; mask != 0; i++, mask >>>= 1) {
+                if ((mask & 1) == 0) {
+                    continue;
+                }
+                int neighborX = x + TraversalMask.DX[i], neighborY = y + TraversalMask.DY[i];
+                if (!scene.isWalkable(neighborX, neighborY)) {
+                    continue;
+                }
+                int neighbor = neighborX * height + neighborY;
+                if (state.isMarked(neighbor)) {
+                    continue;
+                }
+                if (!state.visit(neighbor) && cost >= state.getCost(neighbor)) {
+                    continue;
+                }
+                int h = heuristic(neighborX, neighborY, goalX, goalY);
+                state.setCost(neighbor, cost);
+                state.setParent(neighbor, current);
+                state.setF(neighbor, cost + h);
+                open.push(key(cost + h, h, neighbor));
+            }
+        }
+        return null;
+    }
+
+    private static List<Tile> toPath(SearchState state, SceneMask scene, int goal) {
+        List<Tile> path = new ArrayList<>(state.getCost(goal) + 1);
+        int height = scene.getHeight();
+        for (int index = goal; index != -1; index = state.getParent(index)) {
+            path.add(scene.toTile(index / height, index % height));
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    private static int heuristic(int x, int y, int goalX, int goalY) {
+        return Math.max(Math.abs(goalX - x), Math.abs(goalY - y));
+    }
+
+    /**
+     * Orders by f, then by h so ties go to the tile closest to the goal.
+     */
+    private static long key(int f, int h, int index) {
+        return ((long) f << 40) | ((long) h << INDEX_BITS) | index;
+    }
+
+    private static class OpenSet {
+
+        private long[] heap = new long[256];
+        private int size;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void push(long key) {
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (heap[parent] <= key) {
+                    break;
+                }
+                heap[i] = heap[parent];
+                i = parent;
+            }
+            heap[i] = key;
+        }
+
+        long pop() {
+            long top = heap[0], last = heap[--size];
+            int i = 0, half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && heap[child + 1] < heap[child]) {
+                    child++;
+                }
+                if (last <= heap[child]) {
+                    break;
+                }
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = last;
+            return top;
+        }
+    }
+
+}
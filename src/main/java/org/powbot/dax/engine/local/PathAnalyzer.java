@@ -1,11 +1,12 @@
 package org.powbot.dax.engine.local;
 
 import org.powbot.api.Tile;
-import org.powbot.api.rt4.Players;
 import org.powbot.dax.engine.bfs.BFS;
 import org.powbot.dax.engine.collision.CollisionDataCollector;
 import org.powbot.dax.engine.collision.CollisionFlags;
+import org.powbot.dax.engine.collision.CollisionGrid;
 import org.powbot.dax.engine.collision.RealTimeCollisionTile;
+import org.powbot.dax.engine.collision.SceneSnapshot;
 import org.powbot.dax.shared.PathFindingNode;
 
 import java.util.List;
@@ -16,8 +17,17 @@ public class PathAnalyzer {
     public static RealTimeCollisionTile closestToPlayer = null, furthestReachable = null;
 
     public static RealTimeCollisionTile closestTileInPathToPlayer(List<Tile> path) {
-        CollisionDataCollector.generateRealTimeCollision();
-        final Tile playerPosition = Players.local().tile();
+        return closestTileInPathToPlayer(path, SceneSnapshot.capture());
+    }
+
+    /**
+     * Loads the snapshot into the collision grid and the shared {@link ReachabilityField}, so the search does not read
+     * the client again.
+     */
+    public static RealTimeCollisionTile closestTileInPathToPlayer(List<Tile> path, SceneSnapshot snapshot) {
+        CollisionDataCollector.generateRealTimeCollision(snapshot);
+        ReachabilityField.get(snapshot);
+        final Tile playerPosition = snapshot.getPlayer();
         closestToPlayer = (RealTimeCollisionTile) BFS.bfsClosestToPath(path, RealTimeCollisionTile.get(playerPosition.getX(), playerPosition.getY(), playerPosition.floor()));
         return closestToPlayer;
     }
@@ -27,6 +37,10 @@ public class PathAnalyzer {
         return furthestReachableTile(path, closestTileInPathToPlayer(path));
     }
 
+    public static DestinationDetails furthestReachableTile(List<Tile> path, SceneSnapshot snapshot){
+        return furthestReachableTile(path, closestTileInPathToPlayer(path, snapshot));
+    }
+
     public static DestinationDetails furthestReachableTile(List<Tile> path, PathFindingNode currentPosition){
         if (path == null || currentPosition == null){
             System.out.println("PathAnalyzer attempt to find closest tile in path: " + currentPosition + " " + path);
@@ -55,7 +69,7 @@ public class PathAnalyzer {
                 furthestReachable = current;
                 return new DestinationDetails(PathState.DISCONNECTED_PATH, current, nextNode.getX(), nextNode.getY(), nextNode.floor());
             }
-            if (!direction.confirmTileMovable(RealTimeCollisionTile.get(current.getX(), current.getY(), current.getZ()))){
+            if (!direction.confirmTileMovable(current)){
 //                System.out.println("Unable to confirm that the next rtct is movable from the current rtct.");
                 for (int j = 1; j < 5 && j + i < path.size(); j++) {
                     Tile nextInPath = path.get(i + j);
@@ -119,7 +133,7 @@ public class PathAnalyzer {
                 furthestReachable = current;
                 return new DestinationDetails(PathState.DISCONNECTED_PATH, current, nextNode.getX(), nextNode.getY(), nextNode.floor());
             }
-            if (!direction.confirmTileMovable(RealTimeCollisionTile.get(current.getX(), current.getY(), current.getZ()))){
+            if (!direction.confirmTileMovable(current)){
 
                 for (int j = 1; j < 5 && j + i < path.size(); j++) {
                     Tile nextInPath = path.get(i + j);
@@ -274,20 +288,19 @@ public class PathAnalyzer {
             if (this == SAME_TILE){
                 return true;
             }
-            RealTimeCollisionTile destination = RealTimeCollisionTile.get(realTimeCollisionTile.getX() + this.x, realTimeCollisionTile.getY() + this.y, realTimeCollisionTile.getZ());
-            if (destination == null){
+            int x = realTimeCollisionTile.getX(), y = realTimeCollisionTile.getY(), z = realTimeCollisionTile.getZ();
+            if (!CollisionGrid.contains(x + this.x, y + this.y, z)){
                 return false;
             }
-            if (realTimeCollisionTile.getNeighbors().contains(destination)){
+            if (RealTimeCollisionTile.isNeighbor(x, y, z, this.x, this.y)){
                 return true;
             }
-            return BFS.isReachable(realTimeCollisionTile, destination, 150);
+            return BFS.isReachable(realTimeCollisionTile, RealTimeCollisionTile.get(x + this.x, y + this.y, z), 150);
         }
     }
 
     private static boolean isLoaded(RealTimeCollisionTile rtc){
-        Tile tile = rtc.getTile();
-        int localX = tile.localX(), localY = tile.localY();
+        int localX = rtc.getX() - CollisionGrid.getBaseX(), localY = rtc.getY() - CollisionGrid.getBaseY();
         return !(CollisionFlags.checkFlag(rtc.getCollisionData(), CollisionFlags.CLOSED) && ((localX < 5 || localX > 98) || (localY
          < 5 || localY > 98)));
     }
@@ -0,0 +1,110 @@
+package org.powbot.dax.engine.local;
+
+import org.powbot.api.Tile;
+import org.powbot.dax.engine.bfs.BFS;
+import org.powbot.dax.engine.collision.CollisionDataCollector;
+import org.powbot.dax.engine.collision.CollisionGrid;
+import org.powbot.dax.engine.collision.RealTimeCollisionTile;
+import org.powbot.dax.shared.IndexedPath;
+import org.powbot.dax.shared.PathFindingNode;
+
+/**
+ * Cursor into a path that follows the player while it walks. The cursor only moves forward through the few path tiles
+ * ahead of it, a bounded BFS is run only once the player left the path corridor.
+ */
+public class PathProgressTracker {
+
+    /**
+     * Path tiles ahead of the cursor checked on each update.
+     */
+    public static final int WINDOW = 8;
+
+    /**
+     * Tiles the player may be away from the path before it is searched for again.
+     */
+    public static final int CORRIDOR = 1;
+
+    /**
+     * Expanded tiles of the search for the path once the player left the corridor.
+     */
+    public static final int FALLBACK_LIMIT = 250;
+
+    private final IndexedPath path;
+    private int cursor;
+    private int fallbacks;
+
+    private PathAnalyzer.DestinationDetails furthestReachable;
+    private int furthestReachableCursor = -1, furthestReachableVersion;
+
+    /**
+     * @param cursor index of the path tile the player is at
+     */
+    public PathProgressTracker(IndexedPath path, int cursor) {
+        this.path = path;
+        this.cursor = Math.max(cursor, 0);
+    }
+
+    /**
+     * @return index of the path tile at or next to the player, -1 if the player is no longer near the path. The
+     * collision grid is refreshed before the path is searched for, so the search never runs on the grid of a scene
+     * the player already left.
+     */
+    public int update(Tile player) {
+        int index = path.indexOf(player);
+        if (index >= cursor) {
+            return cursor = index;
+        }
+        int closest = -1, closestDistance = CORRIDOR + 1;
+        for (int i = cursor; i < path.size() && i <= cursor + WINDOW; i++) {
+            Tile tile = path.get(i);
+            if (tile.floor() != player.floor()) {
+                continue;
+            }
+            int distance = Math.max(Math.abs(tile.getX() - player.getX()), Math.abs(tile.getY() - player.getY()));
+            if (distance < closestDistance) {
+                closest = i;
+                closestDistance = distance;
+            }
+        }
+        if (closest != -1) {
+            return cursor = closest;
+        }
+
+        fallbacks++;
+        CollisionDataCollector.refreshRealTimeCollision();
+        PathFindingNode node = BFS.bfsClosestToPath(path, RealTimeCollisionTile.get(player.getX(), player.getY(), player.floor()), FALLBACK_LIMIT);
+        if (node == null) {
+            return -1;
+        }
+        return cursor = path.indexOf(node.getTile());
+    }
+
+    /**
+     * @return {@link PathAnalyzer#furthestReachableTile(java.util.List, PathFindingNode)} from the cursor, analysed
+     * again once the cursor moved or the collision grid changed. The grid is refreshed by
+     * {@link CollisionDataCollector#refreshRealTimeCollision()}, so doors opened or closed meanwhile are seen.
+     */
+    public PathAnalyzer.DestinationDetails getFurthestReachable() {
+        CollisionDataCollector.refreshRealTimeCollision();
+        if (furthestReachable != null && furthestReachableCursor == cursor && furthestReachableVersion == CollisionGrid.getVersion()) {
+            return furthestReachable;
+        }
+        Tile tile = path.get(cursor);
+        furthestReachable = PathAnalyzer.furthestReachableTile(path, RealTimeCollisionTile.get(tile.getX(), tile.getY(), tile.floor()));
+        furthestReachableCursor = cursor;
+        furthestReachableVersion = CollisionGrid.getVersion();
+        return furthestReachable;
+    }
+
+    public int getCursor() {
+        return cursor;
+    }
+
+    /**
+     * @return number of updates that had to search for the path.
+     */
+    public int getFallbacks() {
+        return fallbacks;
+    }
+
+}
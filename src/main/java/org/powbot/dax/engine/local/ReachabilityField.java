@@ -0,0 +1,220 @@
+package org.powbot.dax.engine.local;
+
+import org.powbot.api.Tile;
+import org.powbot.api.rt4.Players;
+import org.powbot.dax.engine.collision.CollisionDataCollector;
+import org.powbot.dax.engine.collision.CollisionGrid;
+import org.powbot.dax.engine.collision.SceneMask;
+import org.powbot.dax.engine.collision.SceneSnapshot;
+import org.powbot.dax.engine.collision.TraversalMask;
+
+import java.util.Arrays;
+
+/**
+ * Breadth first distances and parents from one origin over a {@link SceneMask}. {@link Reachable},
+ * {@link org.powbot.dax.engine.navigation.DaxPathFinder} and {@link AStar} read the field of the player from
+ * {@link #get()}, and the searches of {@link org.powbot.dax.engine.bfs.BFS} read the field of their start from
+ * {@link #ofGrid(Tile)}, instead of flooding the scene themselves.
+ *
+ * Like {@link Reachable}, tiles that are not walkable are reached but not expanded. The origin is expanded even if it
+ * is not walkable, like the start of a BFS search. Tiles are addressed by index, localX * height + localY.
+ */
+public class ReachabilityField {
+
+    public static final int UNREACHABLE = -1;
+
+    private static ReachabilityField playerField, gridField;
+
+    private final SceneMask scene;
+    private final Tile origin;
+    private final int[] distances, parents, positions, ranks, order;
+    private final int size;
+
+    /**
+     * @return field of the player over the {@link CollisionGrid}. The grid is read from the client at most once a tick
+     * by {@link CollisionDataCollector#refreshRealTimeCollision()} and the field is only flooded again if the player
+     * tile or the grid changed.
+     */
+    public static ReachabilityField get() {
+        CollisionDataCollector.refreshRealTimeCollision();
+        return ofGrid(Players.local().tile());
+    }
+
+    /**
+     * @return field of the tile over its plane of the {@link CollisionGrid} as the grid is, the shared one while
+     * neither the origin nor the grid changed. The scene is {@link SceneMask#ofGrid(int)}, a grid filled by the
+     * caller is searched as it is.
+     */
+    public static synchronized ReachabilityField ofGrid(Tile origin) {
+        SceneMask scene = SceneMask.ofGrid(origin.floor());
+        if (gridField == null || gridField.scene != scene || !gridField.origin.equals(origin)) {
+            gridField = new ReachabilityField(scene, origin);
+        }
+        return gridField;
+    }
+
+    /**
+     * @return field of the snapshot's player, the shared one if the snapshot did not change.
+     */
+    public static synchronized ReachabilityField get(SceneSnapshot snapshot) {
+        if (playerField == null || !playerField.getSnapshot().isSame(snapshot)) {
+            playerField = new ReachabilityField(new SceneMask(snapshot), snapshot.getPlayer());
+        }
+        return playerField;
+    }
+
+    /**
+     * @return field of any tile in the snapshot, computed on every call.
+     */
+    public static ReachabilityField of(SceneSnapshot snapshot, Tile origin) {
+        return new ReachabilityField(new SceneMask(snapshot), origin);
+    }
+
+    /**
+     * Drops the shared fields and makes the next {@link #get()} read the client, for when the collision is known to
+     * have changed.
+     */
+    public static synchronized void invalidate() {
+        playerField = gridField = null;
+        CollisionDataCollector.invalidateRealTimeCollision();
+    }
+
+    public ReachabilityField(SceneMask scene, Tile origin) {
+        this.scene = scene;
+        this.origin = origin;
+        int height = scene.getHeight(), tiles = scene.getWidth() * height;
+        distances = new int[tiles];
+        parents = new int[tiles];
+        positions = new int[tiles];
+        ranks = new int[tiles];
+        order = new int[tiles];
+        Arrays.fill(distances, UNREACHABLE);
+        Arrays.fill(ranks, -1);
+
+        int originX = origin.getX() - scene.getBaseX(), originY = origin.getY() - scene.getBaseY();
+        if (!scene.contains(originX, originY)) {
+            size = 0;
+            return;
+        }
+        int head = 0, tail = 0, expanded = 0;
+        int start = originX * height + originY;
+        distances[start] = 0;
+        parents[start] = -1;
+        order[tail++] = start;
+
+        while (head < tail) {
+            int index = order[head++];
+            int x = index / height, y = index % height;
+            if (index != start && !scene.isWalkable(x, y)) {
+                continue;
+            }
+            ranks[index] = expanded++;
+            int mask = scene.get(x, y);
+            for (int i = 0; mask != 0; i++, mask >>>= 1) {
+                if ((mask & 1) == 0) {
+                    continue;
+                }
+                int neighbor = index + TraversalMask.DX[i] * height + TraversalMask.DY[i];
+                if (distances[neighbor] != UNREACHABLE) {
+                    continue;
+                }
+                distances[neighbor] = distances[index] + 1;
+                parents[neighbor] = index;
+                positions[neighbor] = tail;
+                order[tail++] = neighbor;
+            }
+        }
+        size = tail;
+    }
+
+    /**
+     * @return index of the world tile, -1 if it is outside the scene. The floor is not checked.
+     */
+    public int index(int x, int y) {
+        return localIndex(x - scene.getBaseX(), y - scene.getBaseY());
+    }
+
+    /**
+     * @return index of the local tile, -1 if it is outside the scene.
+     */
+    public int localIndex(int localX, int localY) {
+        return scene.contains(localX, localY) ? localX * scene.getHeight() + localY : -1;
+    }
+
+    /**
+     * @return steps from the origin, {@link #UNREACHABLE} if the tile was not reached.
+     */
+    public int getDistance(int index) {
+        return distances[index];
+    }
+
+    /**
+     * @return index of the tile the tile was reached from, -1 for the origin and unreached tiles.
+     */
+    public int getParent(int index) {
+        return distances[index] != UNREACHABLE ? parents[index] : -1;
+    }
+
+    /**
+     * @return position of the tile in the breadth first order, the origin is 0.
+     */
+    public int getPosition(int index) {
+        return distances[index] != UNREACHABLE ? positions[index] : Integer.MAX_VALUE;
+    }
+
+    /**
+     * @return number of tiles expanded before this one, -1 if it was not expanded.
+     */
+    public int getRank(int index) {
+        return ranks[index];
+    }
+
+    /**
+     * Reachability the way {@link org.powbot.dax.engine.bfs.BFSEngine#search} sees it, the tile has to be walkable and
+     * found within limit expanded tiles.
+     *
+     * @param limit number of expanded tiles, -1 for no limit
+     */
+    public boolean isReachable(int index, int limit) {
+        int parent = getParent(index);
+        return parent != -1 && isWalkable(index) && (limit == -1 || ranks[parent] < limit);
+    }
+
+    public boolean isWalkable(int index) {
+        return scene.isWalkable(index / scene.getHeight(), index % scene.getHeight());
+    }
+
+    /**
+     * @return world tile of the index.
+     */
+    public Tile getTile(int index) {
+        return scene.toTile(index / scene.getHeight(), index % scene.getHeight());
+    }
+
+    /**
+     * @return index of the i-th reached tile in breadth first order.
+     */
+    public int getVisited(int i) {
+        return order[i];
+    }
+
+    public int getVisitedCount() {
+        return size;
+    }
+
+    public SceneMask getScene() {
+        return scene;
+    }
+
+    /**
+     * @return snapshot the field was flooded over, without a player for fields of the grid.
+     */
+    public SceneSnapshot getSnapshot() {
+        return scene.getSnapshot();
+    }
+
+    public Tile getOrigin() {
+        return origin;
+    }
+
+}
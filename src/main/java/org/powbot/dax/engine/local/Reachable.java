@@ -3,27 +3,46 @@ package org.powbot.dax.engine.local;
 
 import org.powbot.api.Locatable;
 import org.powbot.api.Tile;
-import org.powbot.api.rt4.Game;
 import org.powbot.api.rt4.Movement;
-import org.powbot.api.rt4.Players;
-import org.powbot.dax.shared.helpers.BankHelper;
+import org.powbot.dax.engine.collision.CollisionGrid;
+import org.powbot.dax.engine.collision.SceneMask;
+import org.powbot.dax.engine.collision.SceneSnapshot;
+import org.powbot.dax.engine.collision.TraversalMask;
+import org.powbot.dax.shared.helpers.BuildingFootprint;
 import org.powbot.util.TransientGetter2D;
 
 import java.util.*;
 
+/**
+ * View of a {@link ReachabilityField}, the shared field of the player unless another home tile is given.
+ */
 public class Reachable {
 
-    private Tile[][] map;
+    private final ReachabilityField field;
+    private final Tile player;
 
     /**
      * Generates reachable map from player position
      */
     public Reachable() {
-        this(null);
+        field = ReachabilityField.get();
+        player = field.getOrigin();
     }
 
     public Reachable(Tile homeTile) {
-        map = generateMap(homeTile != null ? homeTile : Players.local().tile());
+        this(SceneSnapshot.capture(), homeTile);
+    }
+
+    /**
+     * Reachable map of the snapshot's player, no further client reads.
+     */
+    public Reachable(SceneSnapshot snapshot) {
+        this(snapshot, null);
+    }
+
+    public Reachable(SceneSnapshot snapshot, Tile homeTile) {
+        field = homeTile == null || homeTile.equals(snapshot.getPlayer()) ? ReachabilityField.get(snapshot) : ReachabilityField.of(snapshot, homeTile);
+        player = snapshot.getPlayer();
     }
 
     public boolean isBlocked(Locatable position) {
@@ -35,28 +54,22 @@ public class Reachable {
     }
 
     public boolean canReach(Tile position) {
-//        System.out.println("Checking if we can reach position: " + position);
-//        System.out.println("Updated position to world tile: " + position);
-        Tile playerPosition = Players.local().tile();
-        if (playerPosition.getX() == position.getX() && playerPosition.getY() == position.getY()) {
-            return true;
-        }
-//        System.out.println("Updated position to local tile: " + localTile);
-        return getParent(position) != null;
+        return canReach(position.getX(), position.getY());
     }
 
     public boolean canReach(int x, int y) {
-        Tile playerPosition = Players.local().tile();
+        Tile playerPosition = player;
         if (playerPosition.getX() == x && playerPosition.getY() == y) {
             return true;
         }
-        return getParent(new Tile(x, y)) != null;
+        int index = field.index(x, y);
+        return index != -1 && field.getParent(index) != -1;
     }
 
     public Tile closestTile(Collection<Tile> tiles) {
         Tile closest = null;
         double closestDistance = Integer.MAX_VALUE;
-        Tile playerPosition = Players.local().tile();
+        Tile playerPosition = player;
         for (Tile positionable : tiles) {
             double distance = playerPosition.distanceTo(positionable);
             if (distance < closestDistance) {
@@ -73,22 +86,17 @@ public class Reachable {
      * @return parent tile of x and y through BFS.
      */
     public Tile getParent(int x, int y) {
-        return getParent(new Tile(x, y));
+        int index = field.index(x, y);
+        if (index == -1) {
+            return null;
+        }
+        int parent = field.getParent(index);
+        return parent != -1 ? field.getTile(parent) : null;
     }
 
     public Tile getParent(Locatable positionable) {
         Tile tile = positionable.tile();
-//        System.out.println("Checking local tile: " + tile);
-        int x = tile.localX(), y = tile.localY();
-        if (x < 0 || y < 0) {
-            System.out.println("Tile x or y is below 0");
-            return null;
-        }
-        if (x >= 104 || y >= 104 || x >= map.length || y >= map[x].length){
-            System.out.println("Tile x or y is above 104, or the map length");
-            return null;
-        }
-        return map[x][y];
+        return getParent(tile.getX(), tile.getY());
     }
 
     /**
@@ -97,7 +105,11 @@ public class Reachable {
      * @return Distance to tile. Max integer value if unreachable. Does not account for positionable behind doors
      */
     public int getDistance(int x, int y) {
-        return getDistance(new Tile(x, y));
+        int index = field.index(x, y);
+        if (index == -1 || field.getDistance(index) == ReachabilityField.UNREACHABLE) {
+            return Integer.MAX_VALUE;
+        }
+        return field.getDistance(index);
     }
 
     /**
@@ -110,104 +122,79 @@ public class Reachable {
     }
 
     /**
-     * @param x
-     * @param y
+     * @param x local x
+     * @param y local y
      * @return null if no path.
      */
     public ArrayList<Tile> getPath(int x, int y) {
-        ArrayList<Tile> path = new ArrayList<>();
-        Tile mapOffset = Game.mapOffset();
-        Tile playerPos = Players.local().tile();
-        if (x == playerPos.localX() && y == playerPos.localY()) {
-            return path;
-        }
-        if (x < 0 || y < 0) {
-            return null;
-        }
-        if (x >= 104 || y >= 104) {
+        int index = field.localIndex(x, y);
+        if (index == -1 || field.getDistance(index) == ReachabilityField.UNREACHABLE) {
             return null;
         }
-        if (map[x][y] == null) {
-            return null;
-        }
-        Tile tile = new Tile(mapOffset.x() + x, mapOffset.y() + y, Players.local().tile().floor());
-        while ((tile = map[tile.localX()][tile.localY()]) != null) {
-            path.add(tile);
+        ArrayList<Tile> path = new ArrayList<>(field.getDistance(index));
+        for (int parent = field.getParent(index); parent != -1; parent = field.getParent(parent)) {
+            path.add(field.getTile(parent));
         }
         Collections.reverse(path);
         return path;
     }
 
     public int getDistance(Locatable positionable) {
-        int x = positionable.tile().localX(), y = positionable.tile().localY();
-        Tile playerPos = Players.local().tile();
-        if (x == playerPos.localX() && y == playerPos.localY()) {
-            return 0;
-        }
-        if (x < 0 || y < 0) {
-            return Integer.MAX_VALUE;
-        }
-        if (x >= 104 || y >= 104) {
-            return Integer.MAX_VALUE;
-        }
-        if (map[x][y] == null) {
-            return Integer.MAX_VALUE;
-        }
-        int length = 0;
-        Tile tile = positionable.tile();
-        while ((tile = map[tile.localX()][tile.localY()]) != null) {
-            length++;
-        }
-        return length;
+        return getDistance(positionable.tile().getX(), positionable.tile().getY());
+    }
+
+    public ReachabilityField getField() {
+        return field;
     }
 
     public static Tile getBestWalkableTile(Locatable positionable, Reachable reachable) {
-        Set<Tile> building = BankHelper.getBuilding(positionable);
-        boolean[][] traversed = new boolean[104][104];
-        Tile[][] parentMap = new Tile[104][104];
-        Queue<Tile> queue = new LinkedList<>();
-        TransientGetter2D<Integer> collisionData = Movement.collisionMap(Game.floor()).flags();
-        
-        queue.add(positionable.tile());
-        try {
-            traversed[positionable.tile().localX()][positionable.tile().localY()] = true;
-            parentMap[positionable.tile().localX()][positionable.tile().localY()] = null;
-        } catch (ArrayIndexOutOfBoundsException e) {
+        ReachabilityField field = reachable != null ? reachable.field : ReachabilityField.get();
+        Tile player = reachable != null ? reachable.player : field.getOrigin();
+        SceneMask scene = field.getScene();
+        BuildingFootprint building = BuildingFootprint.get(positionable, field.getSnapshot());
+        Tile start = positionable.tile();
+        int startX = start.getX() - scene.getBaseX(), startY = start.getY() - scene.getBaseY();
+        int playerIndex = field.index(player.getX(), player.getY());
+        if (!scene.contains(startX, startY)) {
             return null;
         }
+        int height = scene.getHeight();
+        boolean[] traversed = new boolean[scene.getWidth() * height];
+        int[] queue = new int[traversed.length];
+        int head = 0, tail = 0;
 
-        while (!queue.isEmpty()) {
-            Tile current = queue.poll();
-            int x = current.localX(), y = current.localY();
+        traversed[startX * height + startY] = true;
+        queue[tail++] = startX * height + startY;
 
-            int currentCollisionFlags = collisionData.get(x).get(y);
-            if (AStarNode.isWalkable(currentCollisionFlags)) {
-                if (reachable != null && !reachable.canReach(current.getX(), current.getY())) {
+        while (head < tail) {
+            int index = queue[head++];
+            int x = index / height, y = index % height;
+
+            if (scene.isWalkable(x, y)) {
+                if (reachable != null && index != playerIndex && field.getParent(index) == -1) {
                     continue;
                 }
-                if (building != null && building.size() > 0) {
-                    if (building.contains(current)) {
-                        return current;
+                if (building != null) {
+                    if (building.contains(scene.getBaseX() + x, scene.getBaseY() + y, scene.getFloor())) {
+                        return scene.toTile(x, y);
                     }
                     continue; //Next tile because we are now outside of building.
                 } else {
-                    return current;
+                    return scene.toTile(x, y);
                 }
             }
 
+            int mask = scene.get(x, y);
             for (Direction direction : Direction.values()) {
-                if (!direction.isValidDirection(x, y, collisionData)) {
+                if ((mask & direction.mask) == 0) {
                     continue; //Cannot traverse to tile from current.
                 }
-
-                Tile neighbor = direction.getPointingTile(current);
-                int destinationX = neighbor.localX(), destinationY = neighbor.localY();
-                if (traversed[destinationX][destinationY]) {
+                int neighbor = (x + direction.x) * height + y + direction.y;
+                if (traversed[neighbor]) {
                     continue; //Traversed already
                 }
-                traversed[destinationX][destinationY] = true;
-                parentMap[destinationX][destinationY] = current;
-                queue.add(neighbor);
+                traversed[neighbor] = true;
+                queue[tail++] = neighbor;
             }
 
         }
@@ -218,59 +205,29 @@ public class Reachable {
      * @return gets collision map.
      */
     public static Reachable getMap() {
-        return new Reachable(Players.local().tile());
+        return new Reachable();
     }
 
     public static Reachable getMap(Tile homeTile) {
         return new Reachable(homeTile);
     }
 
+    public static Reachable getMap(SceneSnapshot snapshot) {
+        return new Reachable(snapshot);
+    }
+
     /**
      * @return local reachable tiles
      */
     public static Tile[][] generateMap(Tile homeTile) {
-        boolean[][] traversed = new boolean[104][104];
-        Tile[][] parentMap = new Tile[104][104];
-        Queue<Tile> queue = new LinkedList<>();
-        TransientGetter2D<Integer> collisionData = Movement.collisionMap(Game.floor()).flags();
-
-        if(collisionData == null)
-            return new Tile[][]{};
-
-        queue.add(homeTile);
-        try {
-            traversed[homeTile.localX()][homeTile.localY()] = true;
-            parentMap[homeTile.localX()][homeTile.localY()] = null;
-        } catch (Exception e) {
-            return parentMap;
-        }
-
-        while (!queue.isEmpty()) {
-            Tile currentLocal = queue.poll();
-            int x = currentLocal.localX(), y = currentLocal.localY();
-
-            int currentCollisionFlags = collisionData.get(x).get(y);
-            if (!AStarNode.isWalkable(currentCollisionFlags)) {
-                continue;
+        ReachabilityField field = new Reachable(homeTile).field;
+        int height = field.getScene().getHeight();
+        Tile[][] parentMap = new Tile[field.getScene().getWidth()][height];
+        for (int i = 0; i < field.getVisitedCount(); i++) {
+            int index = field.getVisited(i), parent = field.getParent(index);
+            if (parent != -1) {
+                parentMap[index / height][index % height] = field.getTile(parent);
             }
-
-            for (Direction direction : Direction.values()) {
-                if (!direction.isValidDirection(x, y, collisionData)) {
-                    continue; //Cannot traverse to tile from current.
-                }
-
-                Tile neighbor = direction.getPointingTile(currentLocal);
-                int destinationX = neighbor.localX(), destinationY = neighbor.localY();
-                if(destinationX < 0 || destinationY < 0 || destinationX > 103 || destinationY > 103)
-                    continue;
-                if (traversed[destinationX][destinationY]) {
-                    continue; //Traversed already
-                }
-                traversed[destinationX][destinationY] = true;
-                parentMap[destinationX][destinationY] = currentLocal;
-                queue.add(neighbor);
-            }
-
         }
         return parentMap;
     }
@@ -286,102 +243,31 @@ public class Reachable {
         SOUTH_WEST(-1, -1),
         ;
 
-        int x, y;
+        int x, y, mask;
 
         Direction(int x, int y) {
             this.x = x;
             this.y = y;
+            this.mask = 1 << TraversalMask.direction(x, y);
         }
 
         public Tile getPointingTile(Tile tile) {
             return tile.derive(x, y);
         }
 
+        /**
+         * Same rules as the {@link SceneMask} table, read through {@link TraversalMask#mask} for a single move.
+         */
         public boolean isValidDirection(int x, int y, TransientGetter2D<Integer> collisionData) {
-            try {
-                switch (this) {
-                    case NORTH:
-                        return !AStarNode.blockedNorth(collisionData.get(x).get(y));
-                    case EAST:
-                        return !AStarNode.blockedEast(collisionData.get(x).get(y));
-                    case SOUTH:
-                        return !AStarNode.blockedSouth(collisionData.get(x).get(y));
-                    case WEST:
-                        return !AStarNode.blockedWest(collisionData.get(x).get(y));
-                    case NORTH_EAST:
-                        if (AStarNode.blockedNorth(collisionData.get(x).get(y)) || AStarNode.blockedEast(collisionData.get(x).get(y))) {
-                            return false;
-                        }
-                        if (!AStarNode.isWalkable(collisionData.get(x + 1).get(y))) {
-                            return false;
-                        }
-                        if (!AStarNode.isWalkable(collisionData.get(x).get(y + 1))) {
-                            return false;
-                        }
-                        if (AStarNode.blockedNorth(collisionData.get(x + 1).get(y))) {
-                            return false;
-                        }
-                        if (AStarNode.blockedEast(collisionData.get(x).get(y + 1))) {
-                            return false;
-                        }
-                        return true;
-                    case NORTH_WEST:
-                        if (AStarNode.blockedNorth(collisionData.get(x).get(y)) || AStarNode.blockedWest(collisionData.get(x).get(y))) {
-                            return false;
-                        }
-                        if (!AStarNode.isWalkable(collisionData.get(x - 1).get(y))) {
-                            return false;
-                        }
-                        if (!AStarNode.isWalkable(collisionData.get(x).get(y + 1))) {
-                            return false;
-                        }
-                        if (AStarNode.blockedNorth(collisionData.get(x - 1).get(y))) {
-                            return false;
-                        }
-                        if (AStarNode.blockedWest(collisionData.get(x).get(y + 1))) {
-                            return false;
-                        }
-                        return true;
-                    case SOUTH_EAST:
-                        if (AStarNode.blockedSouth(collisionData.get(x).get(y)) || AStarNode.blockedEast(collisionData.get(x).get(y))) {
-                            return false;
-                        }
-                        if (!AStarNode.isWalkable(collisionData.get(x + 1).get(y))) {
-                            return false;
-                        }
-                        if (!AStarNode.isWalkable(collisionData.get(x).get(y - 1))) {
-                            return false;
-                        }
-                        if (AStarNode.blockedSouth(collisionData.get(x + 1).get(y))) {
-                            return false;
-                        }
-                        if (AStarNode.blockedEast(collisionData.get(x).get(y - 1))) {
-                            return false;
-                        }
-                        return true;
-                    case SOUTH_WEST:
-                        if (AStarNode.blockedSouth(collisionData.get(x).get(y)) || AStarNode.blockedWest(collisionData.get(x).get(y))) {
-                            return false;
-                        }
-                        if (!AStarNode.isWalkable(collisionData.get(x - 1).get(y))) {
-                            return false;
-                        }
-                        if (!AStarNode.isWalkable(collisionData.get(x).get(y - 1))) {
-                            return false;
-                        }
-                        if (AStarNode.blockedSouth(collisionData.get(x - 1).get(y))) {
-                            return false;
-                        }
-                        if (AStarNode.blockedWest(collisionData.get(x).get(y - 1))) {
-                            return false;
-                        }
-                        return true;
-                    default:
-                        return false;
-                }
-            } catch (ArrayIndexOutOfBoundsException e) {
-                return false;
+            TraversalMask.FlagSource flags = (localX, localY) -> getFlags(collisionData, localX, localY);
+            return flags.getFlags(x, y) != CollisionGrid.MISSING && (TraversalMask.mask(flags, x, y, false) & mask) != 0;
+        }
+
+        private static int getFlags(TransientGetter2D<Integer> collisionData, int x, int y) {
+            if (x < 0 || y < 0 || x >= collisionData.getSize() || y >= collisionData.get(x).getSize()) {
+                return CollisionGrid.MISSING;
             }
+            return collisionData.get(x).get(y);
         }
     }
 
@@ -16,7 +16,7 @@ import java.util.Map;
 
 public class Charter implements Loggable {
 
-    private static final int CHARTER_INTERFACE_MASTER = 72;
+    private static final int CHARTER_INTERFACE_MASTER = 72, AREA_RADIUS = 15;
     private static Charter instance;
 
     private static Charter getInstance() {
@@ -82,12 +82,14 @@ public class Charter implements Loggable {
         PRIFDDINAS ("Prifddinas", new Tile(2159, 3329, 0));
 
         private String name;
+        private Tile center;
         private Area area;
 
         LocationProperty(String name, Tile center) {
             this.name = name;
+            this.center = center;
             if (center != null) {
-                this.area = AreaHelper.fromCenter(center, 15);
+                this.area = AreaHelper.fromCenter(center, AREA_RADIUS);
             }
         }
 
@@ -104,8 +106,15 @@ public class Charter implements Loggable {
             return null;
         }
 
+        public Tile getCenter() {
+            return center;
+        }
+
         public static LocationProperty getLocation(Tile tile) {
-            for (LocationProperty locationProperty : values()) {
+            if (tile == null) {
+                return null;
+            }
+            for (LocationProperty locationProperty : TransportIndex.getWithin(tile, AREA_RADIUS, LocationProperty.class)) {
                 if (locationProperty.valid(tile)) {
                     return locationProperty;
                 }
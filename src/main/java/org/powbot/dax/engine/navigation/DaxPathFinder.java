@@ -6,10 +6,9 @@ import org.powbot.api.rt4.Actor;
 import org.powbot.api.rt4.Game;
 import org.powbot.api.rt4.Movement;
 import org.powbot.api.rt4.Players;
-import org.powbot.dax.engine.local.AStarNode;
-import org.powbot.dax.engine.local.Reachable;
-import org.powbot.util.TransientGetter;
-import org.powbot.util.TransientGetter2D;
+import org.powbot.dax.engine.collision.CollisionDataCollector;
+import org.powbot.dax.engine.collision.SceneSnapshot;
+import org.powbot.dax.engine.local.ReachabilityField;
 
 import java.util.*;
 
@@ -18,6 +17,9 @@ import java.util.*;
  */
 public class DaxPathFinder {
 
+    private static ReachabilityField mapField;
+    private static Destination[][] map;
+
     public static class Destination {
         private Tile tile;
         private Destination parent;
@@ -106,14 +108,7 @@ public class DaxPathFinder {
     }
 
     public static int distance(Destination[][] map, Locatable tile) {
-        Tile worldTile = tile.tile().globalTile();
-        int x = worldTile.getX(), y = worldTile.getY();
-
-        if (!validLocalBounds(tile)) {
-            return Integer.MAX_VALUE;
-        }
-
-        Destination destination = map[x][y];
+        Destination destination = get(map, tile);
         return destination == null ? Integer.MAX_VALUE : destination.distance;
     }
 
@@ -123,13 +118,7 @@ public class DaxPathFinder {
 
     public static boolean canReach(Destination[][] map, Tile tile) {
         if (tile.floor() != Players.local().tile().floor()) return false;
-        Tile worldTile = tile.globalTile();
-        int x = worldTile.getX(), y = worldTile.getY();
-        if (!validLocalBounds(tile) || x > map.length || y > map[x].length) {
-            return false;
-        }
-        Destination destination = map[x][y];
-        return destination != null;
+        return get(map, tile) != null;
     }
 
     public static List<Tile> getPath(Tile tile) {
@@ -147,10 +136,7 @@ public class DaxPathFinder {
     }
 
     public static List<Tile> getPath(Destination[][] map, Tile tile) {
-        Tile worldTile = tile.globalTile();
-        int x = worldTile.getX(), y = worldTile.getY();
-
-        Destination destination = map[x][y];
+        Destination destination = get(map, tile);
 
         if (destination == null) {
             return null;
@@ -160,57 +146,48 @@ public class DaxPathFinder {
     }
 
     public static int[][] getCollisionData(){
-        TransientGetter2D<Integer> flags = Movement.collisionMap(Game.floor()).flags();
-        int[][] output = new int[flags.getSize()][];
-        int index1 = 0;
-        for (TransientGetter<Integer> next : flags) {
-            output[index1] = Arrays.stream(next.clone()).mapToInt(i->i).toArray();
-            index1++;
-        }
-        return output;
+        return CollisionDataCollector.captureScene(Game.floor());
     }
 
+    /**
+     * @return distances from the player indexed [localX][localY], built from {@link ReachabilityField#get()}. The
+     * destinations are shared until the field changes, the arrays are the caller's own.
+     */
     public static Destination[][] getMap() {
-        final Tile home = Players.local().tile();
-        Destination[][] map = new Destination[104][104];
-        if(home.getX() < 0 || home.getY() < 0)
-            return map;
-        int[][] collisionData = getCollisionData();
-        if(collisionData.length < home.getX() || collisionData[home.getX()].length < home.getY()){
-            return map;
-        }
-
-        Queue<Destination> queue = new LinkedList<>();
-        queue.add(new Destination(home, null, 0));
-        map[home.getX()][home.getY()] = queue.peek();
-
-        while (!queue.isEmpty()) {
-            Destination currentLocal = queue.poll();
-
-            int x = currentLocal.getLocalTile().getX(), y = currentLocal.getLocalTile().getY();
-            Destination destination = map[x][y];
-
-            for (Reachable.Direction direction : Reachable.Direction.values()) {
-                if (!direction.isValidDirection(x, y, Movement.collisionMap(Game.floor()).flags())) {
-                    continue; //Cannot traverse to tile from current.
-                }
-
-                Tile neighbor = direction.getPointingTile(currentLocal.getLocalTile());
-                int destinationX = neighbor.getX(), destinationY = neighbor.getY();
+        return getMap(ReachabilityField.get());
+    }
 
-                if (!AStarNode.isWalkable(collisionData[destinationX][destinationY])) {
-                    continue;
-                }
+    /**
+     * @return distances from the snapshot's player, see {@link #getMap()}.
+     */
+    public static Destination[][] getMap(SceneSnapshot snapshot) {
+        return getMap(ReachabilityField.get(snapshot));
+    }
 
-                if (map[destinationX][destinationY] != null) {
-                    continue; //Traversed already
-                }
+    private static Destination[][] getMap(ReachabilityField field) {
+        Destination[][] destinations = getDestinations(field), copy = new Destination[destinations.length][];
+        for (int x = 0; x < destinations.length; x++) {
+            copy[x] = destinations[x].clone();
+        }
+        return copy;
+    }
 
-                map[destinationX][destinationY] = new Destination(neighbor, currentLocal, destination.getDistance() + 1);
-                queue.add(map[destinationX][destinationY]);
+    private static synchronized Destination[][] getDestinations(ReachabilityField field) {
+        if (field == mapField) {
+            return map;
+        }
+        int height = field.getScene().getHeight();
+        Destination[][] destinations = new Destination[field.getScene().getWidth()][height];
+        for (int i = 0; i < field.getVisitedCount(); i++) {
+            int index = field.getVisited(i), parent = field.getParent(index);
+            if (parent == -1) {
+                destinations[index / height][index % height] = new Destination(field.getOrigin(), null, 0);
+            } else if (field.isWalkable(index)) {
+                destinations[index / height][index % height] = new Destination(field.getTile(index), destinations[parent / height][parent % height], field.getDistance(index));
             }
-
         }
+        map = destinations;
+        mapField = field;
         return map;
     }
 
@@ -266,9 +243,13 @@ public class DaxPathFinder {
 //        }
 //    }
 
-    private static boolean validLocalBounds(Locatable locatable) {
+    private static Destination get(Destination[][] map, Locatable locatable) {
         Tile tile = locatable.tile();
-        return tile.getX() >= 0 && tile.getX() < 104 && tile.getY() >= 0 && tile.getY() < 104;
+        int x = tile.localX(), y = tile.localY();
+        if (x < 0 || y < 0 || x >= map.length || y >= map[x].length) {
+            return null;
+        }
+        return map[x][y];
     }
 
     private static ArrayList<Tile> getWalkingHistory(){
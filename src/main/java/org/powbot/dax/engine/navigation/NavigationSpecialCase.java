@@ -14,7 +14,6 @@ import org.powbot.dax.shared.helpers.Filters;
 import org.powbot.dax.shared.helpers.GameObjectHelper;
 import org.powbot.dax.shared.helpers.ItemHelper;
 
-import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import java.util.function.Predicate;
@@ -306,8 +305,8 @@ public class NavigationSpecialCase implements Loggable {
     }
 
     public static SpecialLocation getLocation(Tile rsTile){
-        return Arrays.stream(
-                SpecialLocation.values()).filter(tile -> tile.z == rsTile.floor() && tile.getTile().distanceTo(rsTile) <= 2)
+        return TransportIndex.getWithin(rsTile, 2, SpecialLocation.class).stream()
+                .filter(tile -> tile.z == rsTile.floor() && tile.getTile().distanceTo(rsTile) <= 2)
                 .min(Comparator.comparingInt(t -> (int) t.getTile().distanceTo(rsTile))).orElse(null);
     }
 
@@ -0,0 +1,114 @@
+package org.powbot.dax.engine.navigation;
+
+import org.powbot.api.Tile;
+import org.powbot.dax.teleports.Teleport;
+
+import java.util.*;
+
+/**
+ * Grid over the tiles transports lead to or leave from: teleport destinations, special locations (which include the
+ * spirit trees, gnome gliders and fairy rings), spirit tree and glider locations and charter ports. Built once when
+ * the class loads, a query only looks at the cells the square around its tile overlaps.
+ */
+public class TransportIndex {
+
+    public static final int CELL_SIZE = 16;
+
+    private static final Map<Long, List<Endpoint>> cells = new HashMap<>();
+    private static int size;
+
+    static {
+        for (Teleport teleport : Teleport.values()) {
+            add(teleport.getLocation(), teleport);
+        }
+        for (NavigationSpecialCase.SpecialLocation specialLocation : NavigationSpecialCase.SpecialLocation.values()) {
+            add(specialLocation.getTile(), specialLocation);
+        }
+        for (Charter.LocationProperty locationProperty : Charter.LocationProperty.values()) {
+            add(locationProperty.getCenter(), locationProperty);
+        }
+        for (SpiritTree.Location location : SpiritTree.Location.values()) {
+            add(location.getTile(), location);
+        }
+        for (GnomeGlider.Location location : GnomeGlider.Location.values()) {
+            add(location.getRSTile(), location);
+        }
+    }
+
+    /**
+     * @return endpoints of the type within radius tiles on both axes of the tile, on any floor, in the order they were
+     * indexed. Callers apply their own distance and floor rules to these.
+     */
+    public static <T> List<T> getWithin(Tile tile, int radius, Class<T> type) {
+        return values(find(tile, radius, type), type);
+    }
+
+    /**
+     * @return endpoints of the type on exactly the tile.
+     */
+    public static <T> List<T> getAt(Tile tile, Class<T> type) {
+        List<Endpoint> endpoints = find(tile, 0, type);
+        endpoints.removeIf(endpoint -> endpoint.tile.floor() != tile.floor());
+        return values(endpoints, type);
+    }
+
+    public static int size() {
+        return size;
+    }
+
+    private static List<Endpoint> find(Tile tile, int radius, Class<?> type) {
+        List<Endpoint> endpoints = new ArrayList<>();
+        int minCellX = Math.floorDiv(tile.getX() - radius, CELL_SIZE), maxCellX = Math.floorDiv(tile.getX() + radius, CELL_SIZE),
+                minCellY = Math.floorDiv(tile.getY() - radius, CELL_SIZE), maxCellY = Math.floorDiv(tile.getY() + radius, CELL_SIZE);
+        for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+            for (int cellY = minCellY; cellY <= maxCellY; cellY++) {
+                List<Endpoint> cell = cells.get(key(cellX, cellY));
+                if (cell == null) {
+                    continue;
+                }
+                for (Endpoint endpoint : cell) {
+                    if (type.isInstance(endpoint.value) && Math.abs(endpoint.tile.getX() - tile.getX()) <= radius
+                            && Math.abs(endpoint.tile.getY() - tile.getY()) <= radius) {
+                        endpoints.add(endpoint);
+                    }
+                }
+            }
+        }
+        endpoints.sort(Comparator.comparingInt(endpoint -> endpoint.index));
+        return endpoints;
+    }
+
+    private static <T> List<T> values(List<Endpoint> endpoints, Class<T> type) {
+        List<T> values = new ArrayList<>(endpoints.size());
+        for (Endpoint endpoint : endpoints) {
+            values.add(type.cast(endpoint.value));
+        }
+        return values;
+    }
+
+    private static void add(Tile tile, Object value) {
+        if (tile == null) {
+            return;
+        }
+        cells.computeIfAbsent(key(Math.floorDiv(tile.getX(), CELL_SIZE), Math.floorDiv(tile.getY(), CELL_SIZE)), k -> new ArrayList<>(2))
+                .add(new Endpoint(tile, value, size++));
+    }
+
+    private static long key(int cellX, int cellY) {
+        return ((long) cellX << 32) | (cellY & 0xFFFFFFFFL);
+    }
+
+    private static class Endpoint {
+
+        private final Tile tile;
+        private final Object value;
+        private final int index;
+
+        private Endpoint(Tile tile, Object value, int index) {
+            this.tile = tile;
+            this.value = value;
+            this.index = index;
+        }
+    }
+
+}
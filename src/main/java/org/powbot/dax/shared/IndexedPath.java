@@ -0,0 +1,127 @@
+package org.powbot.dax.shared;
+
+import org.powbot.api.Tile;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Read only path with constant time {@link #indexOf(Object)} and {@link #contains(Object)}. Tiles are hashed by
+ * {@link PackedTile#pack(int, int, int)} into an open addressing table that maps to the first index of the tile.
+ */
+public class IndexedPath extends AbstractList<Tile> implements RandomAccess {
+
+    private static final int EMPTY = -1;
+
+    private final Tile[] tiles;
+    private final int[] keys, indices;
+    private final int mask;
+
+    public IndexedPath(List<Tile> path) {
+        tiles = path.toArray(new Tile[0]);
+        int capacity = Integer.highestOneBit(Math.max(tiles.length, 1) * 2 - 1) << 1;
+        keys = new int[capacity];
+        indices = new int[capacity];
+        mask = capacity - 1;
+        Arrays.fill(keys, EMPTY);
+        for (int i = 0; i < tiles.length; i++) {
+            int key = key(tiles[i].getX(), tiles[i].getY(), tiles[i].floor());
+            if (key == EMPTY) {
+                continue;
+            }
+            int slot = slot(key);
+            if (keys[slot] == EMPTY) {
+                keys[slot] = key;
+                indices[slot] = i;
+            }
+        }
+    }
+
+    /**
+     * @return the path itself if it is indexed already.
+     */
+    public static IndexedPath of(List<Tile> path) {
+        return path instanceof IndexedPath ? (IndexedPath) path : new IndexedPath(path);
+    }
+
+    @Override
+    public Tile get(int index) {
+        return tiles[index];
+    }
+
+    @Override
+    public int size() {
+        return tiles.length;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        if (!(o instanceof Tile)) {
+            return -1;
+        }
+        Tile tile = (Tile) o;
+        return indexOf(tile.getX(), tile.getY(), tile.floor());
+    }
+
+    /**
+     * @return first index of the tile, -1 if the path does not contain it.
+     */
+    public int indexOf(int x, int y, int z) {
+        int key = key(x, y, z);
+        if (key == EMPTY) {
+            return super.indexOf(new Tile(x, y, z));
+        }
+        int slot = slot(key);
+        return keys[slot] == key ? indices[slot] : -1;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) != -1;
+    }
+
+    public boolean contains(int x, int y, int z) {
+        return indexOf(x, y, z) != -1;
+    }
+
+    /**
+     * @return tile after the first occurrence of the tile, null if there is none.
+     */
+    public Tile getNext(Tile tile) {
+        int index = indexOf(tile);
+        return index != -1 && index + 1 < tiles.length ? tiles[index + 1] : null;
+    }
+
+    /**
+     * @return tile before the first occurrence of the tile, null if there is none.
+     */
+    public Tile getPrevious(Tile tile) {
+        int index = indexOf(tile);
+        return index > 0 ? tiles[index - 1] : null;
+    }
+
+    /**
+     * @return slot holding the key, or the empty slot it would go in.
+     */
+    private int slot(int key) {
+        int hash = key * 0x9E3779B9;
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * @return packed tile, {@link #EMPTY} if it does not fit in {@link PackedTile#pack(int, int, int)}.
+     */
+    private static int key(int x, int y, int z) {
+        if (x < 0 || y < 0 || x > PackedTile.MAX_COORDINATE || y > PackedTile.MAX_COORDINATE || z < 0 || z > 3) {
+            return EMPTY;
+        }
+        return PackedTile.pack(x, y, z);
+    }
+
+}
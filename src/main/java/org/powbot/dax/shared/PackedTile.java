@@ -0,0 +1,26 @@
+package org.powbot.dax.shared;
+
+/**
+ * World tiles packed into one int. 14 bits x, 14 bits y, 2 bits plane.
+ */
+public class PackedTile {
+
+    public static final int MAX_COORDINATE = 0x3FFF;
+
+    public static int pack(int x, int y, int z) {
+        return (z << 28) | (y << 14) | x;
+    }
+
+    public static int unpackX(int packed) {
+        return packed & MAX_COORDINATE;
+    }
+
+    public static int unpackY(int packed) {
+        return (packed >> 14) & MAX_COORDINATE;
+    }
+
+    public static int unpackZ(int packed) {
+        return packed >>> 28;
+    }
+
+}
@@ -20,7 +20,8 @@ public abstract class PathFindingNode implements Comparable {
         if (!(obj instanceof PathFindingNode)){
             return -1;
         }
-        return Integer.compare(NodeInfo.create(this).f, NodeInfo.create((PathFindingNode) obj).f);
+        SearchState state = SearchState.get();
+        return Integer.compare(state.getF(this), state.getF((PathFindingNode) obj));
     }
 
     public int distance(PathFindingNode pathFindingNode){
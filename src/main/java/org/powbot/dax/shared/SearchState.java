@@ -0,0 +1,165 @@
+package org.powbot.dax.shared;
+
+import org.powbot.dax.engine.collision.CollisionGrid;
+
+import java.util.Arrays;
+
+/**
+ * Reusable bookkeeping for searches over the {@link CollisionGrid}, one per thread. Entries only count while their stamp
+ * matches the current generation, so {@link #begin()} resets everything in O(1) and searches allocate nothing per node.
+ *
+ * Tiles are addressed by index, (z * width + localX) * height + localY.
+ */
+public class SearchState {
+
+    private static final ThreadLocal<SearchState> searchStates = ThreadLocal.withInitial(SearchState::new);
+
+    public static SearchState get() {
+        return searchStates.get();
+    }
+
+    private int baseX, baseY, width, height, planeSize;
+    private int[] stamps = new int[0], marks = new int[0], parents = new int[0], costs = new int[0], f = new int[0], queue = new int[0];
+    private int generation;
+
+    private SearchState() {
+
+    }
+
+    /**
+     * Starts a new search over the current scene.
+     */
+    public SearchState begin() {
+        return begin(CollisionGrid.getBaseX(), CollisionGrid.getBaseY(), CollisionGrid.getWidth(), CollisionGrid.getHeight());
+    }
+
+    /**
+     * Starts a new search over a scene of the given bounds, plane 0 of it is indexed localX * height + localY.
+     */
+    public SearchState begin(int baseX, int baseY, int width, int height) {
+        this.baseX = baseX;
+        this.baseY = baseY;
+        this.width = width;
+        this.height = height;
+        planeSize = width * height;
+        int size = planeSize * CollisionGrid.PLANES;
+        if (stamps.length < size) {
+            stamps = new int[size];
+            marks = new int[size];
+            parents = new int[size];
+            costs = new int[size];
+            f = new int[size];
+            generation = 0;
+        }
+        if (queue.length < planeSize) {
+            int capacity = Integer.highestOneBit(Math.max(planeSize, 1));
+            queue = new int[capacity < planeSize ? capacity << 1 : capacity];
+        }
+        if (++generation == Integer.MAX_VALUE) {
+            Arrays.fill(stamps, 0);
+            Arrays.fill(marks, 0);
+            generation = 1;
+        }
+        return this;
+    }
+
+    /**
+     * @return index of the world tile, -1 if it is outside the scene.
+     */
+    public int index(int x, int y, int z) {
+        int localX = x - baseX, localY = y - baseY;
+        if (localX < 0 || localY < 0 || localX >= width || localY >= height || z < 0 || z >= CollisionGrid.PLANES) {
+            return -1;
+        }
+        return (z * width + localX) * height + localY;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getPlaneSize() {
+        return planeSize;
+    }
+
+    public int getX(int index) {
+        return baseX + (index % planeSize) / height;
+    }
+
+    public int getY(int index) {
+        return baseY + index % height;
+    }
+
+    public int getZ(int index) {
+        return index / planeSize;
+    }
+
+    /**
+     * @return true if the tile was not visited yet in this search, it is visited afterwards.
+     */
+    public boolean visit(int index) {
+        if (stamps[index] == generation) {
+            return false;
+        }
+        stamps[index] = generation;
+        parents[index] = -1;
+        costs[index] = 0;
+        f[index] = 0;
+        return true;
+    }
+
+    public boolean isVisited(int index) {
+        return stamps[index] == generation;
+    }
+
+    /**
+     * Flags a tile as a search target.
+     */
+    public void mark(int index) {
+        marks[index] = generation;
+    }
+
+    public boolean isMarked(int index) {
+        return marks[index] == generation;
+    }
+
+    public int getParent(int index) {
+        return isVisited(index) ? parents[index] : -1;
+    }
+
+    public void setParent(int index, int parent) {
+        parents[index] = parent;
+    }
+
+    public int getCost(int index) {
+        return isVisited(index) ? costs[index] : 0;
+    }
+
+    public void setCost(int index, int cost) {
+        costs[index] = cost;
+    }
+
+    public int getF(int index) {
+        return isVisited(index) ? f[index] : 0;
+    }
+
+    public void setF(int index, int value) {
+        f[index] = value;
+    }
+
+    /**
+     * @return f of the node in this search, 0 if it was not visited.
+     */
+    public int getF(PathFindingNode pathFindingNode) {
+        int index = index(pathFindingNode.getX(), pathFindingNode.getY(), pathFindingNode.getZ());
+        return index != -1 ? getF(index) : 0;
+    }
+
+    /**
+     * @return scratch ring buffer, its length is a power of two that holds every tile of a plane.
+     */
+    public int[] getQueue() {
+        return queue;
+    }
+
+}
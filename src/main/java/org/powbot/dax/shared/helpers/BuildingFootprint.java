@@ -0,0 +1,131 @@
+package org.powbot.dax.shared.helpers;
+
+import org.powbot.api.Locatable;
+import org.powbot.api.Tile;
+import org.powbot.dax.engine.collision.SceneSnapshot;
+
+import java.util.*;
+
+/**
+ * Tiles of a building from {@link BankHelper#getBuilding(Locatable)} as a bitset over their bounding box. Footprints
+ * are cached by map region and floor, the cache is dropped once the scene changes.
+ */
+public class BuildingFootprint {
+
+    private static final int REGION_SIZE = 64;
+
+    private static final Map<Integer, Region> regions = new HashMap<>();
+    private static int sceneBaseX = -1, sceneBaseY = -1, sceneFloor = -1;
+
+    private final int baseX, baseY, width, height, floor;
+    private final BitSet tiles;
+    private final int size;
+
+    private BuildingFootprint(Set<Tile> building) {
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+        int z = 0;
+        for (Tile tile : building) {
+            minX = Math.min(minX, tile.getX());
+            minY = Math.min(minY, tile.getY());
+            maxX = Math.max(maxX, tile.getX());
+            maxY = Math.max(maxY, tile.getY());
+            z = tile.floor();
+        }
+        baseX = minX;
+        baseY = minY;
+        width = maxX - minX + 1;
+        height = maxY - minY + 1;
+        floor = z;
+        tiles = new BitSet(width * height);
+        for (Tile tile : building) {
+            tiles.set((tile.getX() - baseX) * height + tile.getY() - baseY);
+        }
+        size = building.size();
+    }
+
+    /**
+     * @return footprint of the building the tile is in, null if it is not in one.
+     */
+    public static BuildingFootprint get(Locatable positionable) {
+        return get(positionable, SceneSnapshot.capture());
+    }
+
+    /**
+     * @param snapshot scene the cache is kept for, it is cleared if the snapshot is of another scene
+     */
+    public static synchronized BuildingFootprint get(Locatable positionable, SceneSnapshot snapshot) {
+        if (snapshot.getBaseX() != sceneBaseX || snapshot.getBaseY() != sceneBaseY || snapshot.getFloor() != sceneFloor) {
+            regions.clear();
+            sceneBaseX = snapshot.getBaseX();
+            sceneBaseY = snapshot.getBaseY();
+            sceneFloor = snapshot.getFloor();
+        }
+        Tile tile = positionable.tile();
+        Region region = regions.computeIfAbsent(key(tile.getX(), tile.getY(), tile.floor()), k -> new Region());
+        int local = localIndex(tile.getX(), tile.getY());
+        if (region.known.get(local)) {
+            return region.find(tile);
+        }
+
+        Set<Tile> building = BankHelper.getBuilding(positionable);
+        if (building == null || building.isEmpty() || !building.contains(tile)) {
+            region.known.set(local);
+            return null;
+        }
+        BuildingFootprint footprint = new BuildingFootprint(building);
+        Set<Region> added = new HashSet<>();
+        for (Tile buildingTile : building) {
+            Region buildingRegion = regions.computeIfAbsent(key(buildingTile.getX(), buildingTile.getY(), buildingTile.floor()), k -> new Region());
+            buildingRegion.known.set(localIndex(buildingTile.getX(), buildingTile.getY()));
+            if (added.add(buildingRegion)) {
+                buildingRegion.footprints.add(footprint);
+            }
+        }
+        return footprint;
+    }
+
+    public static synchronized void invalidate() {
+        regions.clear();
+        sceneBaseX = sceneBaseY = sceneFloor = -1;
+    }
+
+    public boolean contains(int x, int y, int z) {
+        int localX = x - baseX, localY = y - baseY;
+        return z == floor && localX >= 0 && localY >= 0 && localX < width && localY < height && tiles.get(localX * height + localY);
+    }
+
+    public boolean contains(Tile tile) {
+        return contains(tile.getX(), tile.getY(), tile.floor());
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static int key(int x, int y, int z) {
+        return (x / REGION_SIZE) << 8 | (y / REGION_SIZE) | z << 16;
+    }
+
+    private static int localIndex(int x, int y) {
+        return (x % REGION_SIZE) * REGION_SIZE + y % REGION_SIZE;
+    }
+
+    /**
+     * Tiles of a region whose building is known, and the footprints overlapping it.
+     */
+    private static class Region {
+
+        private final BitSet known = new BitSet(REGION_SIZE * REGION_SIZE);
+        private final List<BuildingFootprint> footprints = new ArrayList<>(1);
+
+        private BuildingFootprint find(Tile tile) {
+            for (BuildingFootprint footprint : footprints) {
+                if (footprint.contains(tile)) {
+                    return footprint;
+                }
+            }
+            return null;
+        }
+    }
+
+}
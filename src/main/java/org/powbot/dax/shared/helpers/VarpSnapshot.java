@@ -0,0 +1,139 @@
+package org.powbot.dax.shared.helpers;
+
+import org.powbot.api.rt4.Varpbits;
+
+import java.util.*;
+
+/**
+ * Copy of the varps and varbits the walker reads, taken at most once per game tick. An id read for the first time is
+ * read from the client and tracked from then on, every later snapshot copies all tracked ids at once and records which
+ * of them changed since the snapshot before.
+ *
+ * Varbits are copied as the client decodes them, there are no varbit definitions here to decode them from the varps.
+ */
+public class VarpSnapshot {
+
+    /**
+     * Time a snapshot is used for, one game tick.
+     */
+    public static final long TICK = 600;
+
+    private static final Set<Integer> trackedVarps = new LinkedHashSet<>(), trackedVarbits = new LinkedHashSet<>();
+    private static VarpSnapshot current;
+    private static boolean stale;
+
+    private final Map<Integer, Integer> varps, varbits;
+    private final Set<Integer> changedVarps, changedVarbits;
+    private final long created, version;
+
+    private VarpSnapshot(VarpSnapshot previous) {
+        created = System.currentTimeMillis();
+        varps = new HashMap<>(trackedVarps.size() * 2);
+        varbits = new HashMap<>(trackedVarbits.size() * 2);
+        changedVarps = new HashSet<>();
+        changedVarbits = new HashSet<>();
+        for (int index : trackedVarps) {
+            varps.put(index, Varpbits.varpbit(index, true));
+        }
+        for (int id : trackedVarbits) {
+            varbits.put(id, Varpbits.value(id, true));
+        }
+        if (previous != null) {
+            diff(previous.varps, varps, changedVarps);
+            diff(previous.varbits, varbits, changedVarbits);
+        }
+        version = previous == null ? 0 : previous.version + (isChanged() ? 1 : 0);
+    }
+
+    /**
+     * @return snapshot of this tick, copied from the client if the last one is older.
+     */
+    public static synchronized VarpSnapshot get() {
+        if (current == null || stale || System.currentTimeMillis() - current.created >= TICK) {
+            capture();
+        }
+        return current;
+    }
+
+    /**
+     * @return snapshot copied from the client now.
+     */
+    public static synchronized VarpSnapshot capture() {
+        stale = false;
+        return current = new VarpSnapshot(current);
+    }
+
+    /**
+     * Makes the next {@link #get()} copy the client again, for when varps are known to have changed.
+     */
+    public static synchronized void invalidate() {
+        stale = true;
+    }
+
+    /**
+     * @return value of the varp, as {@link Varpbits#varpbit(int, boolean)}.
+     */
+    public int varp(int index) {
+        synchronized (VarpSnapshot.class) {
+            Integer value = varps.get(index);
+            if (value == null) {
+                trackedVarps.add(index);
+                varps.put(index, value = Varpbits.varpbit(index, true));
+            }
+            return value;
+        }
+    }
+
+    /**
+     * @return value of the varbit, as {@link Varpbits#value(int, boolean)}.
+     */
+    public int varbit(int id) {
+        synchronized (VarpSnapshot.class) {
+            Integer value = varbits.get(id);
+            if (value == null) {
+                trackedVarbits.add(id);
+                varbits.put(id, value = Varpbits.value(id, true));
+            }
+            return value;
+        }
+    }
+
+    /**
+     * @return indices of the varps that changed since the previous snapshot.
+     */
+    public Set<Integer> getChangedVarps() {
+        return Collections.unmodifiableSet(changedVarps);
+    }
+
+    /**
+     * @return ids of the varbits that changed since the previous snapshot.
+     */
+    public Set<Integer> getChangedVarbits() {
+        return Collections.unmodifiableSet(changedVarbits);
+    }
+
+    public boolean isChanged() {
+        return !changedVarps.isEmpty() || !changedVarbits.isEmpty();
+    }
+
+    /**
+     * @return number of snapshots so far in which a tracked value changed.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public long getCreated() {
+        return created;
+    }
+
+    private static void diff(Map<Integer, Integer> previous, Map<Integer, Integer> values, Set<Integer> changed) {
+        values.forEach((key, value) -> {
+            Integer old = previous.get(key);
+            if (old != null && !old.equals(value)) {
+                changed.add(key);
+            }
+        });
+    }
+
+}
@@ -1,7 +1,5 @@
 package org.powbot.dax.shared.helpers.magic;
 
-import org.powbot.api.rt4.Equipment;
-import org.powbot.api.rt4.Inventory;
 import org.powbot.api.rt4.Item;
 
 import java.util.List;
@@ -27,69 +25,58 @@ public enum RuneElement {
     }
 
     public int getCount() {
-        if (haveStaff()) {
-            return Integer.MAX_VALUE;
-        }
-        return Inventory.stream().filtered(rsItem -> {
-            String name = getItemName(rsItem).toLowerCase();
-
-            if (!name.contains("rune")) {
-                return false;
-            }
-
-            for (String alternativeName : alternativeNames) {
-                if (name.startsWith(alternativeName.toLowerCase())) {
-                    return true;
-                }
-            }
-            return false;
-        }).list().stream().mapToInt(Item::getStack).sum() + RunePouch.getQuantity(this);
+        return RuneLedger.get().getCount(this);
     }
 
     public int getCount(List<Item> inventory, List<Item> equipment) {
-        if (haveStaff(equipment) || (this == FIRE && equipment.stream().anyMatch(i -> i.name().equals("Tome of fire")))) {
-            return Integer.MAX_VALUE;
-        }
-        return inventory.stream().filter(rsItem -> {
-            String name = getItemName(rsItem).toLowerCase();
-
-            if (!name.contains("rune")) {
-                return false;
-            }
+        return RuneLedger.get(inventory, equipment).getCount(this);
+    }
 
-            for (String alternativeName : alternativeNames) {
-                if (name.startsWith(alternativeName.toLowerCase())) {
-                    return true;
-                }
+    /**
+     * @param name lower case name of an item containing "rune"
+     */
+    boolean isRune(String name) {
+        for (String alternativeName : alternativeNames) {
+            if (name.startsWith(alternativeName.toLowerCase())) {
+                return true;
             }
-            return false;
-        }).mapToInt(Item::getStack).sum() + RunePouch.getQuantity(this);
+        }
+        return false;
     }
 
-    private boolean haveStaff(List<Item> equipment) {
-        return equipment.stream().anyMatch(rsItem -> {
-            String name = getItemName(rsItem).toLowerCase();
-            if (!name.contains("staff") && !name.matches("tome of (water|fire)$")) {
-                return false;
-            }
-            for (String alternativeName : alternativeNames) {
-                if (name.contains(alternativeName.toLowerCase())) {
-                    return true;
-                }
-            }
+    /**
+     * @param name lower case name of a worn item
+     * @return whether the item is a staff or tome providing unlimited runes of the element.
+     */
+    boolean isStaff(String name) {
+        if (!name.contains("staff") && !name.matches("tome of (water|fire)$")) {
             return false;
-        });
+        }
+        for (String alternativeName : alternativeNames) {
+            if (name.contains(alternativeName.toLowerCase())) {
+                return true;
+            }
+        }
+        return false;
     }
 
-    private boolean haveStaff() {
-        return haveStaff(Equipment.stream().list());
+    /**
+     * @param runeName name of {@link RunePouch.RuneSlot#getRuneName()}
+     */
+    boolean isPouchRune(String runeName) {
+        for (String alternativeName : alternativeNames) {
+            if (runeName.startsWith(alternativeName)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
      * @param item
      * @return item name. Never null. "null" if no name.
      */
-    private static String getItemName(Item item) {
+    static String getItemName(Item item) {
         return item.name().equals("") ? "null" : item.name();
     }
 
@@ -0,0 +1,118 @@
+package org.powbot.dax.shared.helpers.magic;
+
+import org.powbot.api.rt4.Equipment;
+import org.powbot.api.rt4.Inventory;
+import org.powbot.api.rt4.Item;
+import org.powbot.dax.shared.Pair;
+
+import java.util.List;
+
+/**
+ * Runes available for each {@link RuneElement}, counted once from an inventory and equipment. Includes combination
+ * runes, the rune pouch, and elemental staves and tomes which count as unlimited.
+ *
+ * The last ledger is reused as long as it is asked for with the same lists within a game tick.
+ */
+public class RuneLedger {
+
+    /**
+     * Time a ledger is reused for the same lists, one game tick.
+     */
+    public static final long TICK = 600;
+
+    private static RuneLedger last;
+
+    private final List<Item> inventory, equipment;
+    private final long created;
+    private final int[] counts = new int[RuneElement.values().length];
+
+    private RuneLedger(List<Item> inventory, List<Item> equipment) {
+        this.inventory = inventory;
+        this.equipment = equipment;
+        this.created = System.currentTimeMillis();
+
+        RuneElement[] elements = RuneElement.values();
+        boolean[] unlimited = new boolean[elements.length];
+        for (Item item : equipment) {
+            String name = RuneElement.getItemName(item);
+            String lowerCase = name.toLowerCase();
+            for (RuneElement element : elements) {
+                if (element.isStaff(lowerCase) || (element == RuneElement.FIRE && name.equals("Tome of fire"))) {
+                    unlimited[element.ordinal()] = true;
+                }
+            }
+        }
+        for (Item item : inventory) {
+            String lowerCase = RuneElement.getItemName(item).toLowerCase();
+            if (!lowerCase.contains("rune")) {
+                continue;
+            }
+            for (RuneElement element : elements) {
+                if (element.isRune(lowerCase)) {
+                    counts[element.ordinal()] += item.getStack();
+                }
+            }
+        }
+        if (RunePouch.hasPouch(inventory)) {
+            boolean[] inPouch = new boolean[elements.length];
+            for (RunePouch.RuneSlot slot : RunePouch.RuneSlot.values()) {
+                String runeName = slot.getRuneName();
+                if (runeName == null) {
+                    continue;
+                }
+                int quantity = -1;
+                for (RuneElement element : elements) {
+                    if (inPouch[element.ordinal()] || !element.isPouchRune(runeName)) {
+                        continue;
+                    }
+                    if (quantity == -1) {
+                        quantity = slot.getQuantity();
+                    }
+                    inPouch[element.ordinal()] = true;
+                    counts[element.ordinal()] += quantity;
+                }
+            }
+        }
+        for (int i = 0; i < counts.length; i++) {
+            if (unlimited[i]) {
+                counts[i] = Integer.MAX_VALUE;
+            }
+        }
+    }
+
+    /**
+     * @return ledger of the current inventory and equipment.
+     */
+    public static RuneLedger get() {
+        return get(Inventory.stream().list(), Equipment.stream().list());
+    }
+
+    public static synchronized RuneLedger get(List<Item> inventory, List<Item> equipment) {
+        RuneLedger ledger = last;
+        if (ledger == null || ledger.inventory != inventory || ledger.equipment != equipment
+                || System.currentTimeMillis() - ledger.created >= TICK) {
+            last = ledger = new RuneLedger(inventory, equipment);
+        }
+        return ledger;
+    }
+
+    /**
+     * @return runes of the element, {@link Integer#MAX_VALUE} if a staff or tome provides them.
+     */
+    public int getCount(RuneElement element) {
+        return counts[element.ordinal()];
+    }
+
+    /**
+     * @return whether there are enough runes for the recipe of {@link Spell#getRecipe()}.
+     */
+    public boolean has(Pair<Integer, RuneElement>[] recipe) {
+        for (Pair<Integer, RuneElement> pair : recipe) {
+            if (counts[pair.getValue().ordinal()] < pair.getKey()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -1,10 +1,12 @@
 package org.powbot.dax.shared.helpers.magic;
 
 import org.powbot.api.rt4.Inventory;
-import org.powbot.api.rt4.Varpbits;
+import org.powbot.api.rt4.Item;
+import org.powbot.dax.shared.helpers.VarpSnapshot;
 import org.powbot.api.rt4.Worlds;
 
 import java.util.Arrays;
+import java.util.List;
 
 public class RunePouch{
 
@@ -35,7 +37,7 @@ public class RunePouch{
         }
 
         public String getRuneName(){
-            switch(Varpbits.value(type, true)){
+            switch(VarpSnapshot.get().varbit(type)){
                 case 1: return "Air rune";
                 case 2: return "Water rune";
                 case 3: return "Earth rune";
@@ -61,7 +63,7 @@ public class RunePouch{
         }
 
         public int getQuantity(){
-            return Varpbits.value(quantityVarbitIndex, true);
+            return VarpSnapshot.get().varbit(quantityVarbitIndex);
         }
         
         public int type() {
@@ -90,4 +92,8 @@ public class RunePouch{
         return Inventory.stream().name(POUCH_NAMES).isNotEmpty() && Worlds.isCurrentWorldMembers();
     }
 
+    public static boolean hasPouch(List<Item> inventory){
+        return inventory.stream().anyMatch(i -> Arrays.asList(POUCH_NAMES).contains(i.name())) && Worlds.isCurrentWorldMembers();
+    }
+
 }
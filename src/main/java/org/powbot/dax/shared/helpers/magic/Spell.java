@@ -3,6 +3,7 @@ package org.powbot.dax.shared.helpers.magic;
 import org.powbot.api.rt4.*;
 import org.powbot.api.rt4.walking.model.Skill;
 import org.powbot.dax.shared.Pair;
+import org.powbot.dax.shared.helpers.VarpSnapshot;
 
 import java.util.List;
 
@@ -67,18 +68,11 @@ public enum Spell {
         if (requiredLevel > Skills.level(Skill.Magic)){
             return false;
         }
-        if (this == ARDOUGNE_TELEPORT && Varpbits.varpbit(165, true) < 30){
+        if (this == ARDOUGNE_TELEPORT && VarpSnapshot.get().varp(165) < 30){
             return false;
         }
 
-        for (Pair<Integer, RuneElement> pair : recipe){
-            int amountRequiredForSpell = pair.getKey();
-            RuneElement runeElement = pair.getValue();
-            if (runeElement.getCount(inventory, equipment) < amountRequiredForSpell){
-                return false;
-            }
-        }
-        return true;
+        return RuneLedger.get(inventory, equipment).has(recipe);
     }
 
 }
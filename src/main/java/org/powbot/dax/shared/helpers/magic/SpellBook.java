@@ -1,6 +1,6 @@
 package org.powbot.dax.shared.helpers.magic;
 
-import org.powbot.api.rt4.Varpbits;
+import org.powbot.dax.shared.helpers.VarpSnapshot;
 
 import java.util.Arrays;
 
@@ -20,7 +20,7 @@ public class SpellBook {
         }
 
         public boolean isInUse() {
-            return Varpbits.value(SPELLBOOK_VARBIT, true) == varbit;
+            return VarpSnapshot.get().varbit(SPELLBOOK_VARBIT) == varbit;
         }
     }
 
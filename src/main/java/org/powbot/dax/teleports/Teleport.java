@@ -11,6 +11,7 @@ import org.powbot.dax.teleports.utils.POH;
 import org.powbot.dax.engine.WaitFor;
 import org.powbot.dax.engine.interaction.NPCInteraction;
 import org.powbot.dax.shared.helpers.ItemHelper;
+import org.powbot.dax.shared.helpers.VarpSnapshot;
 import org.powbot.dax.shared.helpers.magic.Spell;
 import org.powbot.dax.shared.helpers.magic.SpellBook;
 import org.powbot.dax.teleports.utils.*;
@@ -31,7 +32,7 @@ public enum Teleport {
 
 	VARROCK_TELEPORT_TAB(
 			35, new Tile(3212, 3424, 0),
-			(i1, i2) -> i1.stream().anyMatch(ItemFilters.nameEquals("Varrock teleport")),
+			ItemRequirement.inventory(ItemFilters.nameEquals("Varrock teleport")),
 			() -> ItemHelper.click("Varrock t.*", "Break")
 	),
 
@@ -50,7 +51,7 @@ public enum Teleport {
 
 	LUMBRIDGE_TELEPORT_TAB(
 			35, new Tile(3225, 3219, 0),
-			(i1, i2) -> i1.stream().anyMatch(ItemFilters.nameEquals("Lumbridge teleport")),
+			ItemRequirement.inventory(ItemFilters.nameEquals("Lumbridge teleport")),
 			() -> ItemHelper.click("Lumbridge t.*", "Break")
 	),
 
@@ -63,7 +64,7 @@ public enum Teleport {
 
 	FALADOR_TELEPORT_TAB(
 			35, new Tile(2966, 3379, 0),
-			(i1, i2) -> i1.stream().anyMatch(ItemFilters.nameEquals("Falador teleport")),
+			ItemRequirement.inventory(ItemFilters.nameEquals("Falador teleport")),
 			() -> ItemHelper.click("Falador t.*", "Break")
 	),
 
@@ -76,13 +77,13 @@ public enum Teleport {
 
 	CAMELOT_TELEPORT_TAB(
 			35, new Tile(2757, 3479, 0),
-			(i1, i2) -> i1.stream().anyMatch(ItemFilters.nameEquals("Camelot teleport")),
+			ItemRequirement.inventory(ItemFilters.nameEquals("Camelot teleport")),
 			() -> ItemHelper.click("Camelot t.*", "Break")
 	),
 
 	SEERS_TELEPORT(
 			35, new Tile(2757, 3479, 0),
-			(i1, i2) -> Spell.CAMELOT_TELEPORT.canUse(i1, i2) && Varpbits.value(4560, true) == 1,
+			(i1, i2) -> Spell.CAMELOT_TELEPORT.canUse(i1, i2) && VarpSnapshot.get().varbit(4560) == 1,
 			() -> selectSpell(Spell.CAMELOT_TELEPORT,"Seers'")
 	),
 
@@ -95,7 +96,7 @@ public enum Teleport {
 
 	ARDOUGNE_TELEPORT_TAB(
 			35, new Tile(2661, 3300, 0),
-			(i1, i2) -> i1.stream().anyMatch(ItemFilters.nameEquals("Ardougne teleport")),
+			ItemRequirement.inventory(ItemFilters.nameEquals("Ardougne teleport")),
 			() -> ItemHelper.click("Ardougne t.*", "Break")
 	),
 
@@ -148,100 +149,100 @@ public enum Teleport {
 
 	RING_OF_WEALTH_GRAND_EXCHANGE(
 			35, new Tile(3161, 3478, 0),
-			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.RING_OF_WEALTH_FILTER, i1, i2),
+			ItemRequirement.carried(WearableItemTeleport.RING_OF_WEALTH_FILTER),
 			() -> WearableItemTeleport.teleport(WearableItemTeleport.RING_OF_WEALTH_FILTER, "(?i)Grand Exchange"),
 			TeleportConstants.LEVEL_30_WILDERNESS_LIMIT
 	),
 
 	RING_OF_WEALTH_FALADOR(
 			35, new Tile(2994, 3377, 0),
-			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.RING_OF_WEALTH_FILTER, i1, i2),
+			ItemRequirement.carried(WearableItemTeleport.RING_OF_WEALTH_FILTER),
 			() -> WearableItemTeleport.teleport(WearableItemTeleport.RING_OF_WEALTH_FILTER, "(?i)falador.*"),
 			TeleportConstants.LEVEL_30_WILDERNESS_LIMIT
 	),
 
 	RING_OF_WEALTH_MISCELLANIA(
 			35, new Tile(2535, 3861, 0),
-			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.RING_OF_WEALTH_FILTER, i1, i2) && Varpbits.varpbit(359, true) >= 100,
+			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.RING_OF_WEALTH_FILTER, i1, i2) && VarpSnapshot.get().varp(359) >= 100,
 			() -> WearableItemTeleport.teleport(WearableItemTeleport.RING_OF_WEALTH_FILTER, "(?i)misc.*"),
 			TeleportConstants.LEVEL_30_WILDERNESS_LIMIT
 	),
 
 	RING_OF_DUELING_PVP_ARENA (
 			35, new Tile(3313, 3233, 0),
-			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.RING_OF_DUELING_FILTER, i1, i2),
+			ItemRequirement.carried(WearableItemTeleport.RING_OF_DUELING_FILTER),
 			() -> WearableItemTeleport.teleport(WearableItemTeleport.RING_OF_DUELING_FILTER, "(?i).*PvP Arena.*")
 	),
 
 	RING_OF_DUELING_CASTLE_WARS (
 			35, new Tile(2440, 3090, 0),
-			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.RING_OF_DUELING_FILTER, i1, i2),
+			ItemRequirement.carried(WearableItemTeleport.RING_OF_DUELING_FILTER),
 			() -> WearableItemTeleport.teleport(WearableItemTeleport.RING_OF_DUELING_FILTER, "(?i).*Castle Wars.*")
 	),
 
 	RING_OF_DUELING_FEROX_ENCLAVE (
 			35, new Tile(3150, 3635, 0),
-			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.RING_OF_DUELING_FILTER, i1, i2),
+			ItemRequirement.carried(WearableItemTeleport.RING_OF_DUELING_FILTER),
 			() -> WearableItemTeleport.teleport(WearableItemTeleport.RING_OF_DUELING_FILTER, "(?i).*Ferox Enclave.*")
 	),
 
 	NECKLACE_OF_PASSAGE_WIZARD_TOWER (
 			35, new Tile(3113, 3179, 0),
-			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.NECKLACE_OF_PASSAGE_FILTER, i1, i2),
+			ItemRequirement.carried(WearableItemTeleport.NECKLACE_OF_PASSAGE_FILTER),
 			() -> WearableItemTeleport.teleport(WearableItemTeleport.NECKLACE_OF_PASSAGE_FILTER, "(?i).*wizard.+tower.*")
 	),
 
 	NECKLACE_OF_PASSAGE_OUTPOST (
 			35, new Tile(2430, 3347, 0),
-			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.NECKLACE_OF_PASSAGE_FILTER, i1, i2),
+			ItemRequirement.carried(WearableItemTeleport.NECKLACE_OF_PASSAGE_FILTER),
 			() -> WearableItemTeleport.teleport(WearableItemTeleport.NECKLACE_OF_PASSAGE_FILTER, "(?i).*the.+outpost.*")
 	),
 
 	NECKLACE_OF_PASSAGE_EYRIE (
 			35, new Tile(3406, 3156, 0),
-			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.NECKLACE_OF_PASSAGE_FILTER, i1, i2),
+			ItemRequirement.carried(WearableItemTeleport.NECKLACE_OF_PASSAGE_FILTER),
 			() -> WearableItemTeleport.teleport(WearableItemTeleport.NECKLACE_OF_PASSAGE_FILTER, "(?i).*eagl.+eyrie.*")
 	),
 
 	COMBAT_BRACE_WARRIORS_GUILD (
 			35, new Tile(2882, 3550, 0),
-			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.COMBAT_BRACE_FILTER, i1, i2),
+			ItemRequirement.carried(WearableItemTeleport.COMBAT_BRACE_FILTER),
 			() -> WearableItemTeleport.teleport(WearableItemTeleport.COMBAT_BRACE_FILTER, "(?i).*warrior.+guild.*")
 	),
 
 	COMBAT_BRACE_CHAMPIONS_GUILD (
 			35, new Tile(3190, 3366, 0),
-			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.COMBAT_BRACE_FILTER, i1, i2),
+			ItemRequirement.carried(WearableItemTeleport.COMBAT_BRACE_FILTER),
 			() -> WearableItemTeleport.teleport(WearableItemTeleport.COMBAT_BRACE_FILTER, "(?i).*champion.+guild.*")
 	),
 
 	COMBAT_BRACE_MONASTARY (
 			35, new Tile(3053, 3486, 0),
-			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.COMBAT_BRACE_FILTER, i1, i2),
+			ItemRequirement.carried(WearableItemTeleport.COMBAT_BRACE_FILTER),
 			() -> WearableItemTeleport.teleport(WearableItemTeleport.COMBAT_BRACE_FILTER, "(?i).*monastery.*")
 	),
 
 	COMBAT_BRACE_RANGE_GUILD (
 			35, new Tile(2656, 3442, 0),
-			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.COMBAT_BRACE_FILTER, i1, i2),
+			ItemRequirement.carried(WearableItemTeleport.COMBAT_BRACE_FILTER),
 			() -> WearableItemTeleport.teleport(WearableItemTeleport.COMBAT_BRACE_FILTER, "(?i).*rang.+guild.*")
 	),
 
 	GAMES_NECK_BURTHORPE (
 			35, new Tile(2897, 3551, 0),
-			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.GAMES_NECKLACE_FILTER, i1, i2),
+			ItemRequirement.carried(WearableItemTeleport.GAMES_NECKLACE_FILTER),
 			() -> WearableItemTeleport.teleport(WearableItemTeleport.GAMES_NECKLACE_FILTER, "(?i).*burthorpe.*")
 	),
 
 	GAMES_NECK_BARBARIAN_OUTPOST (
 			35, new Tile(2520, 3570, 0),
-			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.GAMES_NECKLACE_FILTER, i1, i2),
+			ItemRequirement.carried(WearableItemTeleport.GAMES_NECKLACE_FILTER),
 			() -> WearableItemTeleport.teleport(WearableItemTeleport.GAMES_NECKLACE_FILTER, "(?i).*barbarian.*")
 	),
 
 	GAMES_NECK_CORPOREAL (
 			35, new Tile(2965, 4382, 2),
-			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.GAMES_NECKLACE_FILTER, i1, i2),
+			ItemRequirement.carried(WearableItemTeleport.GAMES_NECKLACE_FILTER),
 			() -> WearableItemTeleport.teleport(WearableItemTeleport.GAMES_NECKLACE_FILTER, "(?i).*corporeal.*")
 	),
 
@@ -253,56 +254,56 @@ public enum Teleport {
 
 	GLORY_EDGEVILLE (
 			35, new Tile(3087, 3496, 0),
-			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.GLORY_FILTER, i1, i2),
+			ItemRequirement.carried(WearableItemTeleport.GLORY_FILTER),
 			() -> WearableItemTeleport.teleport(WearableItemTeleport.GLORY_FILTER, "(?i).*edgeville.*"),
 			TeleportConstants.LEVEL_30_WILDERNESS_LIMIT
 	),
 
 	GLORY_KARAMJA (
 			35, new Tile(2918, 3176, 0),
-			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.GLORY_FILTER, i1, i2),
+			ItemRequirement.carried(WearableItemTeleport.GLORY_FILTER),
 			() -> WearableItemTeleport.teleport(WearableItemTeleport.GLORY_FILTER,"(?i).*karamja.*"),
 			TeleportConstants.LEVEL_30_WILDERNESS_LIMIT
 	),
 
 	GLORY_DRAYNOR (
 			35, new Tile(3105, 3251, 0),
-			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.GLORY_FILTER, i1, i2),
+			ItemRequirement.carried(WearableItemTeleport.GLORY_FILTER),
 			() -> WearableItemTeleport.teleport(WearableItemTeleport.GLORY_FILTER,"(?i).*draynor.*"),
 			TeleportConstants.LEVEL_30_WILDERNESS_LIMIT
 	),
 
 	GLORY_AL_KHARID (
 			35, new Tile(3293, 3163, 0),
-			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.GLORY_FILTER, i1, i2),
+			ItemRequirement.carried(WearableItemTeleport.GLORY_FILTER),
 			() -> WearableItemTeleport.teleport(WearableItemTeleport.GLORY_FILTER, "(?i).*al kharid.*"),
 			TeleportConstants.LEVEL_30_WILDERNESS_LIMIT
 	),
 
 	SKILLS_FISHING_GUILD (
 			35, new Tile(2610, 3391, 0),
-			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.SKILLS_FILTER, i1, i2),
+			ItemRequirement.carried(WearableItemTeleport.SKILLS_FILTER),
 			() -> teleportWithScrollInterface(WearableItemTeleport.SKILLS_FILTER, ".*Fishing.*"),
 			TeleportConstants.LEVEL_30_WILDERNESS_LIMIT
 	),
 
 	SKILLS_MINING_GUILD (
 			35, new Tile(3052, 9764, 0),
-			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.SKILLS_FILTER, i1, i2),
+			ItemRequirement.carried(WearableItemTeleport.SKILLS_FILTER),
 			() -> teleportWithScrollInterface(WearableItemTeleport.SKILLS_FILTER, ".*Mining.*"),
 			TeleportConstants.LEVEL_30_WILDERNESS_LIMIT
 	),
 
 	SKILLS_CRAFTING_GUILD (
 			35, new Tile(2935, 3293, 0),
-			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.SKILLS_FILTER, i1, i2),
+			ItemRequirement.carried(WearableItemTeleport.SKILLS_FILTER),
 			() -> teleportWithScrollInterface(WearableItemTeleport.SKILLS_FILTER, ".*Craft.*"),
 			TeleportConstants.LEVEL_30_WILDERNESS_LIMIT
 	),
 
 	SKILLS_COOKING_GUILD (
 			35, new Tile(3145, 3442, 0),
-			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.SKILLS_FILTER, i1, i2),
+			ItemRequirement.carried(WearableItemTeleport.SKILLS_FILTER),
 			() -> teleportWithScrollInterface(WearableItemTeleport.SKILLS_FILTER, ".*Cooking.*"),
 			TeleportConstants.LEVEL_30_WILDERNESS_LIMIT
 	),
@@ -316,7 +317,7 @@ public enum Teleport {
 
 	SKILLS_FARMING_GUILD_OUTSIDE (
 			35, new Tile(1248, 3719, 0),
-			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.SKILLS_FILTER, i1, i2) && (Varpbits.value(4895, true) < 600 || Skills.realLevel(Skill.Farming) < 45),
+			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.SKILLS_FILTER, i1, i2) && (VarpSnapshot.get().varbit(4895) < 600 || Skills.realLevel(Skill.Farming) < 45),
 			() -> teleportWithScrollInterface(WearableItemTeleport.SKILLS_FILTER, ".*Farming.*"),
 			TeleportConstants.LEVEL_30_WILDERNESS_LIMIT
 	),
@@ -324,252 +325,252 @@ public enum Teleport {
 	SKILLS_FARMING_GUILD_INSIDE (
 			35, new Tile(1249, 3727, 0),
 			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.SKILLS_FILTER, i1, i2)
-								&& Varpbits.value(4895, true) >= 600 && Skills.realLevel(Skill.Farming) >= 45,
+								&& VarpSnapshot.get().varbit(4895) >= 600 && Skills.realLevel(Skill.Farming) >= 45,
 			() -> teleportWithScrollInterface(WearableItemTeleport.SKILLS_FILTER, ".*Farming.*"),
 			TeleportConstants.LEVEL_30_WILDERNESS_LIMIT
 	),
 
 	BURNING_AMULET_CHAOS_TEMPLE (
 			35, new Tile(3236, 3635, 0),
-			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.BURNING_AMULET_FILTER, i1, i2),
+			ItemRequirement.carried(WearableItemTeleport.BURNING_AMULET_FILTER),
 			() -> WearableItemTeleport.teleport(WearableItemTeleport.BURNING_AMULET_FILTER, "(Chaos.*|Okay, teleport to level.*)")
 	),
 
 	BURNING_AMULET_BANDIT_CAMP (
 			35, new Tile(3039, 3652, 0),
-			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.BURNING_AMULET_FILTER, i1, i2),
+			ItemRequirement.carried(WearableItemTeleport.BURNING_AMULET_FILTER),
 			() -> WearableItemTeleport.teleport(WearableItemTeleport.BURNING_AMULET_FILTER, "(Bandit.*|Okay, teleport to level.*)")
 	),
 
 	BURNING_AMULET_LAVA_MAZE (
 			35, new Tile(3029, 3843, 0),
-			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.BURNING_AMULET_FILTER, i1, i2),
+			ItemRequirement.carried(WearableItemTeleport.BURNING_AMULET_FILTER),
 			() -> WearableItemTeleport.teleport(WearableItemTeleport.BURNING_AMULET_FILTER, "(Lava.*|Okay, teleport to level.*)")
 	),
 
 	DIGSITE_PENDANT_BARGE(
 			35, new Tile(3346,3445,0),
-			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.DIGSITE_PENDANT_FILTER, i1, i2),
+			ItemRequirement.carried(WearableItemTeleport.DIGSITE_PENDANT_FILTER),
 			() -> WearableItemTeleport.teleport(WearableItemTeleport.DIGSITE_PENDANT_FILTER, "Digsite")
 	),
 
 
 	ECTOPHIAL (
 			0, new Tile(3660, 3524, 0),
-			(i1, i2) -> i1.stream().anyMatch(ItemFilters.nameEquals("Ectophial")),
+			ItemRequirement.inventory(ItemFilters.nameEquals("Ectophial")),
 			() -> Inventory.stream().filter(ItemFilters.nameContains("Ectophial")).first().interact("Empty")
 	),
 
 	LLETYA (
 			35, new Tile(2330,3172,0),
-			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.TELEPORT_CRYSTAL_FILTER, i1, i2),
+			ItemRequirement.carried(WearableItemTeleport.TELEPORT_CRYSTAL_FILTER),
 			() -> WearableItemTeleport.teleport(WearableItemTeleport.TELEPORT_CRYSTAL_FILTER, "Lletya")
 	),
 
 	XERICS_GLADE(
 			35, new Tile(1753, 3565, 0),
-			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.XERICS_TALISMAN_FILTER, i1, i2),
+			ItemRequirement.carried(WearableItemTeleport.XERICS_TALISMAN_FILTER),
 			() -> teleportWithScrollInterface(WearableItemTeleport.XERICS_TALISMAN_FILTER, ".*Xeric's Glade")
 	),
 	XERICS_INFERNO(
 			35, new Tile(1505,3809,0),
-			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.XERICS_TALISMAN_FILTER, i1, i2),
+			ItemRequirement.carried(WearableItemTeleport.XERICS_TALISMAN_FILTER),
 			() -> teleportWithScrollInterface(WearableItemTeleport.XERICS_TALISMAN_FILTER, ".*Xeric's Inferno")
 	),
 	XERICS_LOOKOUT(
 			35, new Tile(1575, 3531, 0),
-			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.XERICS_TALISMAN_FILTER, i1, i2),
+			ItemRequirement.carried(WearableItemTeleport.XERICS_TALISMAN_FILTER),
 			() -> teleportWithScrollInterface(WearableItemTeleport.XERICS_TALISMAN_FILTER, ".*Xeric's Lookout")
 	),
 
 	WEST_ARDOUGNE_TELEPORT_TAB(
 			35, new Tile(2500,3290,0),
-			(i1, i2) -> Inventory.stream().name("West ardougne teleport").count(true) > 0,
+			ItemRequirement.inventory(ItemFilters.nameEquals("West ardougne teleport")),
 			() -> ItemHelper.click("West ardougne t.*", "Break")
 	),
 
 	RADAS_BLESSING_KOUREND_WOODLAND(
 			0, new Tile(1558, 3458, 0),
-			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.RADAS_BLESSING_FILTER, i1, i2),
+			ItemRequirement.carried(WearableItemTeleport.RADAS_BLESSING_FILTER),
 			() -> WearableItemTeleport.teleport(WearableItemTeleport.RADAS_BLESSING_FILTER, "Kourend .*")
 	),
 	RADAS_BLESSING_MOUNT_KARUULM(
 			0, new Tile(1310, 3796, 0),
-			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.RADAS_BLESSING_FILTER.and(ItemFilters.nameContains("3","4")), i1, i2),
+			ItemRequirement.carried(WearableItemTeleport.RADAS_BLESSING_FILTER.and(ItemFilters.nameContains("3","4"))),
 			() -> WearableItemTeleport.teleport(WearableItemTeleport.RADAS_BLESSING_FILTER, "Mount.*")
 	),
 
 	CRAFTING_CAPE_TELEPORT(
 			0, new Tile(2931, 3286, 0),
-			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.CRAFTING_CAPE_FILTER, i1, i2),
+			ItemRequirement.carried(WearableItemTeleport.CRAFTING_CAPE_FILTER),
 			() -> WearableItemTeleport.teleport(WearableItemTeleport.CRAFTING_CAPE_FILTER, "Teleport")
 	),
 
 	CABBAGE_PATCH_TELEPORT(
 			0, new Tile(3049, 3287, 0),
-			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.EXPLORERS_RING_FILTER, i1, i2),
+			ItemRequirement.carried(WearableItemTeleport.EXPLORERS_RING_FILTER),
 			() -> WearableItemTeleport.teleport(WearableItemTeleport.EXPLORERS_RING_FILTER, "Teleport")
 	),
 
 	LEGENDS_GUILD_TELEPORT(
 			0, new Tile(2729, 3348, 0),
-			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.QUEST_CAPE_FILTER, i1, i2),
+			ItemRequirement.carried(WearableItemTeleport.QUEST_CAPE_FILTER),
 			() -> WearableItemTeleport.teleport(WearableItemTeleport.QUEST_CAPE_FILTER, "Teleport")
 	),
 
 	KANDARIN_MONASTERY_TELEPORT(
 			0, new Tile(2606, 3216, 0),
-			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.ARDOUGNE_CLOAK_FILTER, i1, i2),
+			ItemRequirement.carried(WearableItemTeleport.ARDOUGNE_CLOAK_FILTER),
 			() -> WearableItemTeleport.teleport(WearableItemTeleport.ARDOUGNE_CLOAK_FILTER, ".*Monastery.*")
 	),
 
 	RIMMINGTON_TELEPORT_TAB(
 			35, new Tile(2954,3224, 0),
-			(i1, i2) -> i1.stream().anyMatch(ItemFilters.nameEquals("Rimmington teleport")),
+			ItemRequirement.inventory(ItemFilters.nameEquals("Rimmington teleport")),
 			() -> ItemHelper.click("Rimmington t.*", "Break")
 	),
 
 	TAVERLEY_TELEPORT_TAB(
 			35, new Tile(2894, 3465, 0),
-			(i1, i2) -> i1.stream().anyMatch(ItemFilters.nameEquals("Taverly teleport")),
+			ItemRequirement.inventory(ItemFilters.nameEquals("Taverly teleport")),
 			() -> ItemHelper.click("Taverley t.*", "Break")
 	),
 
 	RELLEKKA_TELEPORT_TAB(
 			35, new Tile(2668, 3631, 0),
-			(i1, i2) -> i1.stream().anyMatch(ItemFilters.nameEquals("Rellekka teleport")),
+			ItemRequirement.inventory(ItemFilters.nameEquals("Rellekka teleport")),
 			() -> ItemHelper.click("Rellekka t.*", "Break")
 	),
 
 	BRIMHAVEN_TELEPORT_TAB(
 			35, new Tile(2758, 3178, 0),
-			(i1, i2) -> i1.stream().anyMatch(ItemFilters.nameEquals("Brimhaven teleport")),
+			ItemRequirement.inventory(ItemFilters.nameEquals("Brimhaven teleport")),
 			() -> ItemHelper.click("Brimhaven t.*", "Break")
 	),
 
 	POLLNIVNEACH_TELEPORT_TAB(
 			35, new Tile(3340, 3004, 0),
-			(i1, i2) -> i1.stream().anyMatch(ItemFilters.nameEquals("Pollnivneach teleport")),
+			ItemRequirement.inventory(ItemFilters.nameEquals("Pollnivneach teleport")),
 			() -> ItemHelper.click("Pollnivneach t.*", "Break")
 	),
 
 	YANILLE_TELEPORT_TAB(
 			35, new Tile(2544, 3095, 0),
-			(i1, i2) -> i1.stream().anyMatch(ItemFilters.nameEquals("Yanille teleport")),
+			ItemRequirement.inventory(ItemFilters.nameEquals("Yanille teleport")),
 			() -> ItemHelper.click("Yanille t.*", "Break")
 	),
 
 	HOSIDIUS_TELEPORT_TAB(
 			35, new Tile(1744, 3517, 0),
-			(i1, i2) -> i1.stream().anyMatch(ItemFilters.nameEquals("Hosidius teleport")),
+			ItemRequirement.inventory(ItemFilters.nameEquals("Hosidius teleport")),
 			() -> ItemHelper.click("Hosidius t.*", "Break")
 	),
 
 	CONSTRUCTION_CAPE_RIMMINGTON(
 			0, new Tile(2954,3224, 0),
-			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.CONSTRUCTION_CAPE_FILTER, i1, i2),
+			ItemRequirement.carried(WearableItemTeleport.CONSTRUCTION_CAPE_FILTER),
 			() -> teleportWithScrollInterface(WearableItemTeleport.CONSTRUCTION_CAPE_FILTER,".*Rimmington")
 	),
 
 	CONSTRUCTION_CAPE_TAVERLEY(
 			0, new Tile(2894, 3465, 0),
-			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.CONSTRUCTION_CAPE_FILTER, i1, i2),
+			ItemRequirement.carried(WearableItemTeleport.CONSTRUCTION_CAPE_FILTER),
 			() -> teleportWithScrollInterface(WearableItemTeleport.CONSTRUCTION_CAPE_FILTER,".*Taverley")
 	),
 
 	CONSTRUCTION_CAPE_RELLEKKA(
 			0, new Tile(2668, 3631, 0),
-			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.CONSTRUCTION_CAPE_FILTER, i1, i2),
+			ItemRequirement.carried(WearableItemTeleport.CONSTRUCTION_CAPE_FILTER),
 			() -> teleportWithScrollInterface(WearableItemTeleport.CONSTRUCTION_CAPE_FILTER,".*Rellekka")
 	),
 
 	CONSTRUCTION_CAPE_BRIMHAVEN(
 			0, new Tile(2758, 3178, 0),
-			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.CONSTRUCTION_CAPE_FILTER, i1, i2),
+			ItemRequirement.carried(WearableItemTeleport.CONSTRUCTION_CAPE_FILTER),
 			() -> teleportWithScrollInterface(WearableItemTeleport.CONSTRUCTION_CAPE_FILTER,".*Brimhaven")
 	),
 
 	CONSTRUCTION_CAPE_POLLNIVNEACH(
 			0, new Tile(3340, 3004, 0),
-			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.CONSTRUCTION_CAPE_FILTER, i1, i2),
+			ItemRequirement.carried(WearableItemTeleport.CONSTRUCTION_CAPE_FILTER),
 			() -> teleportWithScrollInterface(WearableItemTeleport.CONSTRUCTION_CAPE_FILTER,".*Pollnivneach")
 	),
 
 	CONSTRUCTION_CAPE_YANILLE(
 			0, new Tile(2544, 3095, 0),
-			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.CONSTRUCTION_CAPE_FILTER, i1, i2),
+			ItemRequirement.carried(WearableItemTeleport.CONSTRUCTION_CAPE_FILTER),
 			() -> teleportWithScrollInterface(WearableItemTeleport.CONSTRUCTION_CAPE_FILTER,".*Yanille")
 	),
 
 	CONSTRUCTION_CAPE_HOSIDIUS(
 			0, new Tile(1744, 3517, 0),
-			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.CONSTRUCTION_CAPE_FILTER, i1, i2),
+			ItemRequirement.carried(WearableItemTeleport.CONSTRUCTION_CAPE_FILTER),
 			() -> teleportWithScrollInterface(WearableItemTeleport.CONSTRUCTION_CAPE_FILTER,".*Hosidius")
 	),
 
 	SLAYER_RING_GNOME_STRONGHOLD(
 			35, new Tile(2433, 3424, 0),
-			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.SLAYER_RING, i1, i2),
+			ItemRequirement.carried(WearableItemTeleport.SLAYER_RING),
 			() -> WearableItemTeleport.teleport(WearableItemTeleport.SLAYER_RING, ".*Stronghold")
 	),
 
 	SLAYER_RING_MORYTANIA(
 			35, new Tile(3422, 3537, 0),
-			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.SLAYER_RING, i1, i2),
+			ItemRequirement.carried(WearableItemTeleport.SLAYER_RING),
 			() -> WearableItemTeleport.teleport(WearableItemTeleport.SLAYER_RING, ".*Tower")
 	),
 
 	SLAYER_RING_RELLEKKA_CAVE(
 			35, new Tile(2801, 9999, 0),
-			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.SLAYER_RING, i1 , i2),
+			ItemRequirement.carried(WearableItemTeleport.SLAYER_RING),
 			() -> WearableItemTeleport.teleport(WearableItemTeleport.SLAYER_RING, ".*Rellekka")
 	),
 
 	SALVE_GRAVEYARD_TAB(
 			35, new Tile(3432, 3460, 0),
-			(i1, i2) -> i1.stream().anyMatch(ItemFilters.nameEquals("Salve graveyard teleport")),
+			ItemRequirement.inventory(ItemFilters.nameEquals("Salve graveyard teleport")),
 			() -> ItemHelper.click("Salve graveyard t.*", "Break")
 	),
 
 	FENKENSTRAINS_CASTLE_TAB(
 			35, new Tile(3547, 3528, 0),
-			(i1, i2) -> i1.stream().anyMatch(ItemFilters.nameEquals("Fenkenstrain's castle teleport")),
+			ItemRequirement.inventory(ItemFilters.nameEquals("Fenkenstrain's castle teleport")),
 			() -> ItemHelper.click("Fenkenstrain's castle t.*", "Break")
 	),
 
 	BARROWS_TAB(
 			35, new Tile(3565, 3314, 0),
-			(i1, i2) -> i1.stream().anyMatch(ItemFilters.nameEquals("Barrows teleport")),
+			ItemRequirement.inventory(ItemFilters.nameEquals("Barrows teleport")),
 			() -> ItemHelper.click("Barrows t.*", "Break")
 	),
 
 	ARCEUUS_LIBRARY_TAB(
 			35, new Tile(1632, 3838, 0),
-			(i1, i2) -> i1.stream().anyMatch(ItemFilters.nameEquals("Arceuus library teleport")),
+			ItemRequirement.inventory(ItemFilters.nameEquals("Arceuus library teleport")),
 			() -> ItemHelper.click("Arceuus library t.*", "Break")
 	),
 
 	BATTLEFRONT_TAB(
 			35, new Tile(1349,3738,0),
-			(i1, i2) -> i1.stream().anyMatch(ItemFilters.nameEquals("Battlefront teleport")),
+			ItemRequirement.inventory(ItemFilters.nameEquals("Battlefront teleport")),
 			() -> ItemHelper.click("Battlefront t.*", "Break")
 	),
 
 	DRAYNOR_MANOR_TAB(
 			35, new Tile(3109,3352,0),
-			(i1, i2) -> i1.stream().anyMatch(ItemFilters.nameEquals("Draynor manor teleport")),
+			ItemRequirement.inventory(ItemFilters.nameEquals("Draynor manor teleport")),
 			() -> ItemHelper.click("Draynor manor t.*", "Break")
 	),
 
 	MIND_ALTAR_TAB(
 			35, new Tile(2980, 3510, 0),
-			(i1, i2) -> i1.stream().anyMatch(ItemFilters.nameEquals("Mind altar teleport")),
+			ItemRequirement.inventory(ItemFilters.nameEquals("Mind altar teleport")),
 			() -> ItemHelper.click("Mind altar t.*", "Break")
 	),
 
 	ENCHANTED_LYRE_RELLEKA(
 			35, new Tile(2661, 3465, 0),
-			(i1, i2) -> i1.stream().anyMatch(ItemFilters.nameContains("Enchanted lyre")),
+			ItemRequirement.inventory(ItemFilters.nameContains("Enchanted lyre")),
 			() -> {
 				return ItemHelper.click("Enchanted lyre", "Play|Rellekka.*");
 			}
@@ -577,31 +578,31 @@ public enum Teleport {
 
 	FARMING_CAPE_TELEPORT(
 			0, new Tile(1248, 3726, 0),
-			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.FARMING_CAPE_FILTER, i1, i2),
+			ItemRequirement.carried(WearableItemTeleport.FARMING_CAPE_FILTER),
 			() -> WearableItemTeleport.teleport(WearableItemTeleport.FARMING_CAPE_FILTER, "Teleport")
 	),
 	ARDOUGNE_FARM_TELEPORT(
 			0, new Tile(2663, 3375, 0),
-			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.ARDOUGNE_CLOAK_4_FILTER, i1, i2),
+			ItemRequirement.carried(WearableItemTeleport.ARDOUGNE_CLOAK_4_FILTER),
 			() -> WearableItemTeleport.teleport(WearableItemTeleport.ARDOUGNE_CLOAK_4_FILTER, "Farm Teleport")
 	),
 
 	ROYAL_SEED_POD(
 			0, new Tile(2465, 3495, 0),
-			(i1, i2) -> i1.stream().anyMatch(ItemFilters.nameEquals("Royal seed pod")),
+			ItemRequirement.inventory(ItemFilters.nameEquals("Royal seed pod")),
 			() -> ItemHelper.click("Royal seed.*", "Commune") && Condition.wait(() -> Players.local().animation() != -1, 200, 10) && Condition.wait(() -> Players.local().animation() == -1, 200, 20)
 	),
 
 	DRAKANS_MEDALLION_VER_SINHAZA(
 			0, new Tile(3649, 3230, 0),
-			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.DRAKANS_MEDALLION_FILTER, i1, i2),
+			ItemRequirement.carried(WearableItemTeleport.DRAKANS_MEDALLION_FILTER),
 			() -> ItemHelper.click("Drakan's.*", "Ver Sinhaza")
 
 	),
 
 	DRAKANS_MEDALLION_DARKMEYER(
 			0, new Tile(3592, 3337, 0),
-			(i1, i2) -> WearableItemTeleport.has(WearableItemTeleport.DRAKANS_MEDALLION_FILTER, i1, i2),
+			ItemRequirement.carried(WearableItemTeleport.DRAKANS_MEDALLION_FILTER),
 			() -> ItemHelper.click("Drakan's.*", "Darkmeyer")
 
 	),
@@ -609,12 +610,12 @@ public enum Teleport {
 	BARBARIAN_ASSAULT_MINIGAME(
 			Grouping.MINIGAMES.BARBARIAN_ASSAULT,
 			new Tile(2532, 3577, 0),
-			(i1, i2) -> Varpbits.value(3251, true) > 0
+			(i1, i2) -> VarpSnapshot.get().varbit(3251) > 0
 	),
 	BLAST_FURNACE_MINIGAME(
 			Grouping.MINIGAMES.BLAST_FURNACE,
 			new Tile(0, 0 ,0),
-			(i1, i2) -> Varpbits.value(575, true) >= 1
+			(i1, i2) -> VarpSnapshot.get().varbit(575) >= 1
 	),
 	BURTHROPE_GAMES_ROOM_MINIGAME(
 			Grouping.MINIGAMES.BURTHORPE_GAMES_ROOM,
@@ -694,37 +695,37 @@ public enum Teleport {
 
 	OURANIA_TELEPORT_TAB(
 			35, new Tile(2468, 3246, 0),
-			(i1, i2) -> i1.stream().anyMatch(ItemFilters.nameEquals("Ourania teleport")),
+			ItemRequirement.inventory(ItemFilters.nameEquals("Ourania teleport")),
 			() -> ItemHelper.click("Ourania t.*", "Break")
 	),
 
 	WATERBIRTH_TELEPORT_TAB(
 			35, new Tile(2546, 3757, 0),
-			(i1, i2) -> i1.stream().anyMatch(ItemFilters.nameEquals("Waterbirth teleport")),
+			ItemRequirement.inventory(ItemFilters.nameEquals("Waterbirth teleport")),
 			() -> ItemHelper.click("Waterbirth t.*", "Break")
 	),
 
 	BARBARIAN_OUTPOST_TELEPORT_TAB(
 			35, new Tile(2544, 3568, 0),
-			(i1, i2) -> i1.stream().anyMatch(ItemFilters.nameEquals("Barbarian teleport")),
+			ItemRequirement.inventory(ItemFilters.nameEquals("Barbarian teleport")),
 			() -> ItemHelper.click("Barbarian tele.*", "Break")
 	),
 
 	KHAZARD_TELEPORT_TAB(
 			35, new Tile(2637, 3167, 0),
-			(i1, i2) -> i1.stream().anyMatch(ItemFilters.nameEquals("Khazard teleport")),
+			ItemRequirement.inventory(ItemFilters.nameEquals("Khazard teleport")),
 			() -> ItemHelper.click("Khazard tele.*", "Break")
 	),
 
 	FISHING_GUILD_TELEPORT_TAB(
 			35, new Tile(2612, 3391, 0),
-			(i1, i2) -> i1.stream().anyMatch(ItemFilters.nameEquals("Fishing guild teleport")),
+			ItemRequirement.inventory(ItemFilters.nameEquals("Fishing guild teleport")),
 			() -> ItemHelper.click("Fishing guild t.*", "Break")
 	),
 
 	CATHERBY_TELEPORT_TAB(
 			35, new Tile(2801, 3449, 0),
-			(i1, i2) -> i1.stream().anyMatch(ItemFilters.nameEquals("Catherby teleport")),
+			ItemRequirement.inventory(ItemFilters.nameEquals("Catherby teleport")),
 			() -> ItemHelper.click("Catherby t.*", "Break")
 	),
 
@@ -864,6 +865,11 @@ public enum Teleport {
 
 	;
 
+	/**
+	 * Tiles from the location within which the player is at the teleport.
+	 */
+	public static final int SPOT_DISTANCE = 10;
+
 	private int moveCost;
 	private final Tile location;
 	private final Requirement requirement;
@@ -983,21 +989,24 @@ public enum Teleport {
 	}
 
 	public boolean isAtTeleportSpot(Tile tile) {
-		return tile.distanceTo(location) < 10;
+		return tile.distanceTo(location) < SPOT_DISTANCE;
 	}
 
 	public static void setMoveCosts(int moveCost){
 		Arrays.stream(values()).forEach(t -> t.setMoveCost(moveCost));
 	}
 
+	/**
+	 * Whether the teleport can be used on the world and wilderness level, regardless of its requirement.
+	 */
+	boolean isAllowed(boolean membersWorld, boolean pvpWorld, int wildernessLevel) {
+		if((!membersWorld && requiresMembers) || (pvpWorld && !canBeUsedInPvpWorlds))
+			return false;
+		return teleportLimit.canCast(wildernessLevel);
+	}
+
 	public static List<Tile> getValidStartingRSTiles(boolean membersWorld, boolean pvpWorld, List<Teleport> blacklist, List<Item> inventory, List<Item> equipment) {
-		final int wildernessLevel = Combat.wildernessLevel();
-		return Arrays.stream(values())
-				.filter(t -> {
-					if((!membersWorld && t.requiresMembers) || (pvpWorld && !t.canBeUsedInPvpWorlds))
-						return false;
-					return !blacklist.contains(t) && t.teleportLimit.canCast(wildernessLevel) && t.canUse(inventory, equipment);
-				})
+		return TeleportIndex.getUsable(membersWorld, pvpWorld, blacklist, inventory, equipment).stream()
 				.map(Teleport::getLocation)
 				.collect(Collectors.toList());
 	}
@@ -1048,30 +1057,31 @@ public enum Teleport {
 	}
 
 	private static boolean hasBeenToZeah(){
-		return Varpbits.value(4897, true) > 0;
+		return VarpSnapshot.get().varbit(4897) > 0;
 	}
 
 	private static boolean canUseHomeTeleport(){
 		return !Players.local().inCombat() &&
-					   ((long) Varpbits.varpbit(892, true) * 60 * 1000) + (30 * 60 * 1000) < System.currentTimeMillis();
+					   ((long) VarpSnapshot.get().varp(892) * 60 * 1000) + (30 * 60 * 1000) < System.currentTimeMillis();
 	}
 
 	private static boolean canUseMinigameTeleport(){
-		if(Varpbits.value(14022) == 1){//can't minigame teleport when we are at Duel Arena
+		VarpSnapshot varps = VarpSnapshot.get();
+		if(varps.varbit(14022) == 1){//can't minigame teleport when we are at Duel Arena
 			return false;
 		}
-		if(Varpbits.value(541) == 1){//instanced area that prevents you from using minigame teleports
+		if(varps.varbit(541) == 1){//instanced area that prevents you from using minigame teleports
 			return false;
 		}
 		if(Components.stream(651, 4).texture(1054).viewable().isNotEmpty()){
 			return false;
 		}
 		return !Players.local().inCombat() &&
-					   ((long) Varpbits.varpbit(888) * 60 * 1000) + (20 * 60 * 1000) < System.currentTimeMillis();
+					   ((long) varps.varp(888) * 60 * 1000) + (20 * 60 * 1000) < System.currentTimeMillis();
 	}
 
 	private static boolean hasCompletedDesertTreasure(){
-		return Varpbits.value(358, true) >= 15;
+		return VarpSnapshot.get().varbit(358) >= 15;
 	}
 
 }
@@ -0,0 +1,142 @@
+package org.powbot.dax.teleports;
+
+import org.powbot.api.rt4.Combat;
+import org.powbot.api.rt4.Item;
+import org.powbot.dax.api.models.Requirement;
+import org.powbot.dax.teleports.utils.ItemRequirement;
+
+import java.util.*;
+
+/**
+ * Usable teleports from one pass over the inventory and equipment.
+ *
+ * Teleports with an {@link ItemRequirement} are indexed by item id, the first time an id is seen every item
+ * requirement is tested against it once. The teleports the items allow are only worked out again once the set of
+ * carried ids changed. Other requirements read the client themselves and are evaluated on every call.
+ */
+public class TeleportIndex {
+
+    private static final Teleport[] TELEPORTS = Teleport.values();
+
+    /**
+     * Ordinals of the teleports with an item requirement, and of those also met by worn items.
+     */
+    private static final BitSet ITEM_TELEPORTS = new BitSet(TELEPORTS.length), EQUIPMENT_TELEPORTS = new BitSet(TELEPORTS.length);
+
+    private static final Map<Integer, BitSet> matchesById = new HashMap<>();
+
+    private static long inventoryFingerprint, equipmentFingerprint;
+    private static BitSet itemUsable;
+
+    static {
+        for (Teleport teleport : TELEPORTS) {
+            Requirement requirement = teleport.getRequirement();
+            if (requirement instanceof ItemRequirement) {
+                ITEM_TELEPORTS.set(teleport.ordinal());
+                if (((ItemRequirement) requirement).isEquipmentAllowed()) {
+                    EQUIPMENT_TELEPORTS.set(teleport.ordinal());
+                }
+            }
+        }
+    }
+
+    /**
+     * @return teleports that are not blacklisted and can be used with the items.
+     */
+    public static synchronized List<Teleport> getUsable(boolean membersWorld, boolean pvpWorld, List<Teleport> blacklist, List<Item> inventory, List<Item> equipment) {
+        long inventoryFingerprint = fingerprint(inventory), equipmentFingerprint = fingerprint(equipment);
+        if (itemUsable == null || inventoryFingerprint != TeleportIndex.inventoryFingerprint || equipmentFingerprint != TeleportIndex.equipmentFingerprint) {
+            itemUsable = getItemUsable(inventory, equipment);
+            TeleportIndex.inventoryFingerprint = inventoryFingerprint;
+            TeleportIndex.equipmentFingerprint = equipmentFingerprint;
+        }
+
+        final int wildernessLevel = Combat.wildernessLevel();
+        List<Teleport> usable = new ArrayList<>();
+        for (Teleport teleport : TELEPORTS) {
+            if (!teleport.isAllowed(membersWorld, pvpWorld, wildernessLevel) || blacklist.contains(teleport)) {
+                continue;
+            }
+            if (ITEM_TELEPORTS.get(teleport.ordinal()) ? itemUsable.get(teleport.ordinal()) : teleport.canUse(inventory, equipment)) {
+                usable.add(teleport);
+            }
+        }
+        return usable;
+    }
+
+    /**
+     * @return whether the item meets the item requirement of any teleport.
+     */
+    public static synchronized boolean isTeleportItem(Item item) {
+        return !getMatches(item).isEmpty();
+    }
+
+    /**
+     * @return whether an item with the id meets the item requirement of any teleport, true for ids not seen yet by
+     * {@link #index(List)} or the other lookups.
+     */
+    public static synchronized boolean isTeleportItem(int id) {
+        BitSet matches = matchesById.get(id);
+        return matches == null || !matches.isEmpty();
+    }
+
+    /**
+     * Tests items with ids not seen before against the item requirements, so {@link #isTeleportItem(int)} knows them.
+     */
+    public static synchronized void index(List<Item> items) {
+        for (Item item : items) {
+            getMatches(item);
+        }
+    }
+
+    /**
+     * Forgets the item matches, for when filters of item requirements changed.
+     */
+    public static synchronized void invalidate() {
+        matchesById.clear();
+        itemUsable = null;
+    }
+
+    private static BitSet getItemUsable(List<Item> inventory, List<Item> equipment) {
+        BitSet usable = new BitSet(TELEPORTS.length), worn = new BitSet(TELEPORTS.length);
+        for (Item item : inventory) {
+            usable.or(getMatches(item));
+        }
+        for (Item item : equipment) {
+            worn.or(getMatches(item));
+        }
+        worn.and(EQUIPMENT_TELEPORTS);
+        usable.or(worn);
+        return usable;
+    }
+
+    /**
+     * @return ordinals of the teleports whose item requirement the item matches.
+     */
+    private static BitSet getMatches(Item item) {
+        BitSet matches = matchesById.get(item.id());
+        if (matches == null) {
+            matches = new BitSet(TELEPORTS.length);
+            for (int i = ITEM_TELEPORTS.nextSetBit(0); i >= 0; i = ITEM_TELEPORTS.nextSetBit(i + 1)) {
+                if (((ItemRequirement) TELEPORTS[i].getRequirement()).matches(item)) {
+                    matches.set(i);
+                }
+            }
+            matchesById.put(item.id(), matches);
+        }
+        return matches;
+    }
+
+    /**
+     * @return hash of the carried ids, independent of their order and stack sizes.
+     */
+    private static long fingerprint(List<Item> items) {
+        long fingerprint = items.size();
+        for (Item item : items) {
+            long hash = item.id() * 0x9E3779B97F4A7C15L;
+            fingerprint += hash ^ (hash >>> 32);
+        }
+        return fingerprint;
+    }
+
+}
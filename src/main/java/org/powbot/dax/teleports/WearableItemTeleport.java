@@ -49,7 +49,7 @@ public class WearableItemTeleport {
 	}
 
 	public static boolean has(Predicate<Item> filter, List<Item> inventory, List<Item> equipment) {
-		return Inventory.stream().filter(filter).isNotEmpty() || Equipment.stream().filter(filter).isNotEmpty();
+		return inventory.stream().anyMatch(filter) || equipment.stream().anyMatch(filter);
 	}
 
 	public static boolean teleport(Predicate<Item> filter, String action) {
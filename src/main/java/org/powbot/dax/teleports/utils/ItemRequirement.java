@@ -0,0 +1,47 @@
+package org.powbot.dax.teleports.utils;
+
+import org.powbot.api.rt4.Item;
+import org.powbot.dax.api.models.Requirement;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Requirement of having an item in the inventory, or also worn. It reads nothing but the items and whether an item
+ * matches depends on its id only, so {@link org.powbot.dax.teleports.TeleportIndex} evaluates these per item id.
+ */
+public class ItemRequirement implements Requirement {
+
+    private final Predicate<Item> filter;
+    private final boolean equipment;
+
+    private ItemRequirement(Predicate<Item> filter, boolean equipment) {
+        this.filter = filter;
+        this.equipment = equipment;
+    }
+
+    public static ItemRequirement inventory(Predicate<Item> filter) {
+        return new ItemRequirement(filter, false);
+    }
+
+    /**
+     * @return requirement met by the item in the inventory or the equipment.
+     */
+    public static ItemRequirement carried(Predicate<Item> filter) {
+        return new ItemRequirement(filter, true);
+    }
+
+    @Override
+    public boolean satisfies(List<Item> inventory, List<Item> equipment) {
+        return inventory.stream().anyMatch(filter) || (this.equipment && equipment.stream().anyMatch(filter));
+    }
+
+    public boolean matches(Item item) {
+        return filter.test(item);
+    }
+
+    public boolean isEquipmentAllowed() {
+        return equipment;
+    }
+
+}
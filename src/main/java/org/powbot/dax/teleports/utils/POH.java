@@ -1,6 +1,6 @@
 package org.powbot.dax.teleports.utils;
 
-import org.powbot.api.rt4.Varpbits;
+import org.powbot.dax.shared.helpers.VarpSnapshot;
 
 public enum POH {
 	RIMMINGTON(1),
@@ -20,6 +20,6 @@ public enum POH {
 			HOUSE_LOCATION_VARBIT = 2187;
 
 	public boolean isHouseLocation(){
-		return Varpbits.value(HOUSE_LOCATION_VARBIT) == this.value;
+		return VarpSnapshot.get().varbit(HOUSE_LOCATION_VARBIT) == this.value;
 	}
 }
@@ -1,7 +1,7 @@
 package org.powbot.dax.teleports.utils;
 
 import org.powbot.api.rt4.Combat;
-import org.powbot.api.rt4.Varpbits;
+import org.powbot.dax.shared.helpers.VarpSnapshot;
 
 public class TeleportConstants {
 
@@ -19,7 +19,7 @@ public class TeleportConstants {
     }
 
     public static boolean isVarrockTeleportAtGE(){
-        return Varpbits.value(GE_TELEPORT_VARBIT, true) > 0;
+        return VarpSnapshot.get().varbit(GE_TELEPORT_VARBIT) > 0;
     }
 
 }
@@ -0,0 +1,136 @@
+package org.powbot.dax.engine.bfs;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.powbot.api.Tile;
+import org.powbot.dax.engine.collision.CollisionFlags;
+import org.powbot.dax.engine.collision.CollisionGrid;
+import org.powbot.dax.engine.collision.RealTimeCollisionTile;
+import org.powbot.dax.shared.PathFindingNode;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the same searches over a random scene with {@link ReferenceBFS} on {@link ReferenceCollisionTile} and with
+ * {@link BFS} on the {@link CollisionGrid}, checks they agree and prints the time per search of both.
+ */
+public class BFSBenchmarkTest {
+
+    private static final int BASE_X = 3136, BASE_Y = 3136, SIZE = 104, QUERIES = 200, ROUNDS = 20;
+    private static final int[] WALLS = {
+            CollisionFlags.NORTH, CollisionFlags.EAST, CollisionFlags.SOUTH, CollisionFlags.WEST,
+            CollisionFlags.BLOCKED_NORTH_WALL, CollisionFlags.BLOCKED_EAST_WALL, CollisionFlags.BLOCKED_SOUTH_WALL, CollisionFlags.BLOCKED_WEST_WALL
+    };
+
+    private static final List<int[]> queries = new ArrayList<>();
+    private static final List<List<Tile>> paths = new ArrayList<>();
+
+    @BeforeAll
+    public static void createScene() {
+        Random random = new Random(1);
+        ReferenceCollisionTile.clearMemory();
+        CollisionGrid.reset(BASE_X, BASE_Y, SIZE, SIZE);
+        for (int localX = 0; localX < SIZE; localX++) {
+            for (int localY = 0; localY < SIZE; localY++) {
+                int flags = CollisionFlags.OPEN;
+                if (random.nextInt(5) == 0) {
+                    flags |= CollisionFlags.BLOCKED;
+                } else if (random.nextInt(8) == 0) {
+                    flags |= WALLS[random.nextInt(WALLS.length)];
+                }
+                ReferenceCollisionTile.create(BASE_X + localX, BASE_Y + localY, 0, flags);
+                CollisionGrid.setLocal(localX, localY, 0, flags);
+            }
+        }
+        for (int i = 0; i < QUERIES; i++) {
+            queries.add(new int[]{BASE_X + random.nextInt(SIZE), BASE_Y + random.nextInt(SIZE), BASE_X + random.nextInt(SIZE), BASE_Y + random.nextInt(SIZE)});
+            List<Tile> path = new ArrayList<>();
+            int x = BASE_X + random.nextInt(SIZE), y = BASE_Y + random.nextInt(SIZE);
+            for (int j = 0; j < 20 && x < BASE_X + SIZE; j++, x++) {
+                path.add(new Tile(x, y, 0));
+            }
+            paths.add(path);
+        }
+    }
+
+    @Test
+    public void isReachableMatchesReference() {
+        int reachable = 0;
+        for (int[] query : queries) {
+            boolean expected = ReferenceBFS.isReachable(ReferenceCollisionTile.get(query[0], query[1], 0), ReferenceCollisionTile.get(query[2], query[3], 0), -1);
+            assertEquals(expected, BFS.isReachable(RealTimeCollisionTile.get(query[0], query[1], 0), RealTimeCollisionTile.get(query[2], query[3], 0), -1),
+                    "isReachable " + query[0] + "," + query[1] + " -> " + query[2] + "," + query[3]);
+            if (expected) {
+                reachable++;
+            }
+        }
+        assertTrue(reachable > 0 && reachable < QUERIES, "scene should have reachable and unreachable queries, had " + reachable);
+    }
+
+    @Test
+    public void bfsClosestToPathMatchesReference() {
+        for (int i = 0; i < QUERIES; i++) {
+            int[] query = queries.get(i);
+            List<Tile> path = paths.get(i);
+            PathFindingNode expected = ReferenceBFS.bfsClosestToPath(path, ReferenceCollisionTile.get(query[0], query[1], 0), -1),
+                    actual = BFS.bfsClosestToPath(path, RealTimeCollisionTile.get(query[0], query[1], 0), -1);
+            if (expected == null) {
+                assertNull(actual);
+                continue;
+            }
+            assertNotNull(actual);
+            assertTrue(path.contains(actual.getTile()));
+            assertEquals(depth(query[0], query[1], expected), depth(query[0], query[1], actual));
+        }
+    }
+
+    @Test
+    public void benchmark() {
+        long reference = 0, engine = 0;
+        for (int round = 0; round < ROUNDS * 2; round++) {
+            long start = System.nanoTime();
+            for (int[] query : queries) {
+                ReferenceBFS.isReachable(ReferenceCollisionTile.get(query[0], query[1], 0), ReferenceCollisionTile.get(query[2], query[3], 0), -1);
+            }
+            long middle = System.nanoTime();
+            for (int[] query : queries) {
+                BFS.isReachable(RealTimeCollisionTile.get(query[0], query[1], 0), RealTimeCollisionTile.get(query[2], query[3], 0), -1);
+            }
+            long end = System.nanoTime();
+            if (round >= ROUNDS) {
+                reference += middle - start;
+                engine += end - middle;
+            }
+        }
+        long searches = (long) ROUNDS * QUERIES;
+        System.out.printf("isReachable over a %dx%d scene: reference %.1f us, BFS %.1f us per search%n",
+                SIZE, SIZE, reference / 1000.0 / searches, engine / 1000.0 / searches);
+    }
+
+    /**
+     * @return number of steps from the start to the node over the {@link ReferenceCollisionTile} neighbors.
+     */
+    private static int depth(int x, int y, PathFindingNode node) {
+        Map<PathFindingNode, Integer> depths = new HashMap<>();
+        Queue<PathFindingNode> queue = new ArrayDeque<>();
+        PathFindingNode start = ReferenceCollisionTile.get(x, y, 0);
+        depths.put(start, 0);
+        queue.add(start);
+        while (!queue.isEmpty()) {
+            PathFindingNode current = queue.remove();
+            if (current.equals(node)) {
+                return depths.get(current);
+            }
+            for (PathFindingNode neighbor : current.getNeighbors()) {
+                if (!depths.containsKey(neighbor)) {
+                    depths.put(neighbor, depths.get(current) + 1);
+                    queue.add(neighbor);
+                }
+            }
+        }
+        return -1;
+    }
+
+}
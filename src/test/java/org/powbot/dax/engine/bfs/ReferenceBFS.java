@@ -0,0 +1,91 @@
+package org.powbot.dax.engine.bfs;
+
+import org.powbot.api.Tile;
+import org.powbot.dax.shared.PathFindingNode;
+
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * {@link BFS} as it was before {@link BFSEngine}: a linked list frontier over node objects, visited tiles tracked in
+ * nested maps like the old NodeInfo.
+ */
+class ReferenceBFS {
+
+    private static HashMap<Integer, HashMap<Integer, HashMap<Integer, Boolean>>> traversed = new HashMap<>();
+
+    public static PathFindingNode bfsClosestToPath(List<Tile> path, PathFindingNode start, int limit) {
+        if (path == null || start == null) {
+            return null;
+        }
+        if (path.contains(start.getTile())) {
+            return start;
+        }
+        traversed = new HashMap<>();
+
+        int iteration = 0;
+        Queue<PathFindingNode> queue = new LinkedList<>();
+        queue.add(start);
+        traverse(start);
+
+        while (!queue.isEmpty()) {
+            if (iteration != -1 && iteration++ == limit) {
+                break;
+            }
+            PathFindingNode current = queue.remove();
+            for (PathFindingNode neighbor : current.getNeighbors()) {
+                if (!traverse(neighbor)) {
+                    continue;
+                }
+                if (path.contains(neighbor.getTile())) {
+                    return neighbor;
+                }
+                queue.add(neighbor);
+            }
+        }
+        return null;
+    }
+
+    public static boolean isReachable(PathFindingNode start, PathFindingNode end, int limit) {
+        if (start == null || end == null) {
+            return false;
+        }
+        if (start.equals(end)) {
+            return true;
+        }
+        traversed = new HashMap<>();
+
+        int iteration = 0;
+        Queue<PathFindingNode> queue = new LinkedList<>();
+        queue.add(start);
+        traverse(start);
+
+        while (!queue.isEmpty()) {
+            if (iteration != -1 && iteration++ == limit) {
+                return false;
+            }
+            PathFindingNode current = queue.remove();
+            for (PathFindingNode neighbor : current.getNeighbors()) {
+                if (!traverse(neighbor)) {
+                    continue;
+                }
+                if (neighbor.equals(end)) {
+                    return true;
+                }
+                queue.add(neighbor);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true if the node was not traversed before.
+     */
+    private static boolean traverse(PathFindingNode node) {
+        return traversed.computeIfAbsent(node.getX(), k -> new HashMap<>()).computeIfAbsent(node.getY(), k -> new HashMap<>())
+                .put(node.getZ(), true) == null;
+    }
+
+}
@@ -0,0 +1,159 @@
+package org.powbot.dax.engine.bfs;
+
+import org.powbot.dax.engine.collision.RealTimeCollisionTile;
+import org.powbot.dax.shared.PathFindingNode;
+import org.powbot.dax.shared.RSRegion;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+
+/**
+ * Collision tile as it was before {@link org.powbot.dax.engine.collision.CollisionGrid}: every tile is an object in
+ * nested maps and neighbors are worked out from the flags on every call. Only the south east diagonal differs, it
+ * checks the south wall of the east tile like {@link org.powbot.dax.engine.collision.TraversalMask} does.
+ */
+class ReferenceCollisionTile extends PathFindingNode {
+
+    private static HashMap<Integer, HashMap<Integer, HashMap<Integer, ReferenceCollisionTile>>> xMap = new HashMap<>();
+
+    private final int x, y, z, collisionData;
+
+    private ReferenceCollisionTile(int x, int y, int z, int collisionData) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.collisionData = collisionData;
+    }
+
+    public boolean blockedNorth() {
+        return RealTimeCollisionTile.blockedNorth(collisionData);
+    }
+
+    public boolean blockedEast() {
+        return RealTimeCollisionTile.blockedEast(collisionData);
+    }
+
+    public boolean blockedSouth() {
+        return RealTimeCollisionTile.blockedSouth(collisionData);
+    }
+
+    public boolean blockedWest() {
+        return RealTimeCollisionTile.blockedWest(collisionData);
+    }
+
+    public boolean isWalkable() {
+        return RealTimeCollisionTile.isWalkable(collisionData);
+    }
+
+    @Override
+    public int getX() {
+        return x;
+    }
+
+    @Override
+    public int getY() {
+        return y;
+    }
+
+    @Override
+    public int getZ() {
+        return z;
+    }
+
+    @Override
+    public Collection<PathFindingNode> getNeighbors(HashSet<RSRegion> limit) {
+        return null;
+    }
+
+    @Override
+    public Collection<PathFindingNode> getNeighbors() {
+        Collection<PathFindingNode> neighbors = new HashSet<>();
+        boolean nNeighbor = false, eNeighbor = false, sNeighbor = false, wNeighbor = false;
+        ReferenceCollisionTile n = get(getX(), getY() + 1, getZ());
+        if (!blockedNorth()) {
+            if (n != null && n.isWalkable()) {
+                neighbors.add(n);
+                nNeighbor = true;
+            }
+        }
+        ReferenceCollisionTile e = get(getX() + 1, getY(), getZ());
+        if (!blockedEast()) {
+            if (e != null && e.isWalkable()) {
+                neighbors.add(e);
+                eNeighbor = true;
+            }
+        }
+        ReferenceCollisionTile s = get(getX(), getY() - 1, getZ());
+        if (!blockedSouth()) {
+            if (s != null && s.isWalkable()) {
+                neighbors.add(s);
+                sNeighbor = true;
+            }
+        }
+        ReferenceCollisionTile w = get(getX() - 1, getY(), getZ());
+        if (!blockedWest()) {
+            if (w != null && w.isWalkable()) {
+                neighbors.add(w);
+                wNeighbor = true;
+            }
+        }
+
+        if (nNeighbor && eNeighbor) {
+            if (!n.blockedEast() && !e.blockedNorth()) {
+                ReferenceCollisionTile ne = get(getX() + 1, getY() + 1, getZ());
+                if (ne != null && ne.isWalkable()) {
+                    neighbors.add(ne);
+                }
+            }
+        }
+        if (sNeighbor && eNeighbor) {
+            if (!s.blockedEast() && !e.blockedSouth()) {
+                ReferenceCollisionTile se = get(getX() + 1, getY() - 1, getZ());
+                if (se != null && se.isWalkable()) {
+                    neighbors.add(se);
+                }
+            }
+        }
+        if (sNeighbor && wNeighbor) {
+            if (!s.blockedWest() && !w.blockedSouth()) {
+                ReferenceCollisionTile sw = get(getX() - 1, getY() - 1, getZ());
+                if (sw != null && sw.isWalkable()) {
+                    neighbors.add(sw);
+                }
+            }
+        }
+        if (nNeighbor && wNeighbor) {
+            if (!n.blockedWest() && !w.blockedNorth()) {
+                ReferenceCollisionTile nw = get(getX() - 1, getY() + 1, getZ());
+                if (nw != null && nw.isWalkable()) {
+                    neighbors.add(nw);
+                }
+            }
+        }
+        return neighbors;
+    }
+
+    public static ReferenceCollisionTile get(int x, int y, int z) {
+        HashMap<Integer, HashMap<Integer, ReferenceCollisionTile>> yMap = xMap.get(x);
+        if (yMap == null) {
+            return null;
+        }
+        HashMap<Integer, ReferenceCollisionTile> zMap = yMap.get(y);
+        if (zMap == null) {
+            return null;
+        }
+        return zMap.get(z);
+    }
+
+    public static ReferenceCollisionTile create(int x, int y, int z, int collision) {
+        ReferenceCollisionTile tile = new ReferenceCollisionTile(x, y, z, collision);
+        xMap.computeIfAbsent(x, k -> new HashMap<>()).computeIfAbsent(y, k -> new HashMap<>()).put(z, tile);
+        return tile;
+    }
+
+    public static void clearMemory() {
+        xMap = new HashMap<>();
+    }
+
+}
@@ -0,0 +1,94 @@
+package org.powbot.dax.engine.local;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.powbot.api.Tile;
+import org.powbot.dax.engine.collision.CollisionFlags;
+import org.powbot.dax.engine.collision.SceneMask;
+import org.powbot.dax.engine.collision.SceneSnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs {@link AStar} from walkable tiles of a random scene, checks its paths are as short as the breadth first
+ * distances of a {@link ReachabilityField} and prints the time per search.
+ */
+public class AStarBenchmarkTest {
+
+    private static final int BASE_X = 3136, BASE_Y = 3136, SIZE = 104, QUERIES = 500, ROUNDS = 20;
+
+    private static SceneMask scene;
+    private static final List<Tile[]> queries = new ArrayList<>();
+
+    @BeforeAll
+    public static void createScene() {
+        Random random = new Random(1);
+        int[][] flags = new int[SIZE][SIZE];
+        for (int x = 0; x < SIZE; x++) {
+            for (int y = 0; y < SIZE; y++) {
+                if (random.nextInt(5) == 0) {
+                    flags[x][y] = CollisionFlags.BLOCKED;
+                } else if (random.nextInt(8) == 0) {
+                    flags[x][y] = random.nextBoolean() ? CollisionFlags.BLOCKED_NORTH_WALL : CollisionFlags.EAST;
+                }
+            }
+        }
+        Tile player = new Tile(BASE_X + SIZE / 2, BASE_Y + SIZE / 2, 0);
+        flags[SIZE / 2][SIZE / 2] = CollisionFlags.OPEN;
+        scene = new SceneMask(new SceneSnapshot(BASE_X, BASE_Y, 0, player, flags));
+        while (queries.size() < QUERIES) {
+            int startX = random.nextInt(SIZE), startY = random.nextInt(SIZE);
+            if (!scene.isWalkable(startX, startY)) {
+                continue;
+            }
+            queries.add(new Tile[]{
+                    new Tile(BASE_X + startX, BASE_Y + startY, 0),
+                    new Tile(BASE_X + random.nextInt(SIZE), BASE_Y + random.nextInt(SIZE), 0)
+            });
+        }
+    }
+
+    @Test
+    public void pathsAreShortest() {
+        int found = 0;
+        for (Tile[] query : queries) {
+            ReachabilityField field = new ReachabilityField(scene, query[0]);
+            int index = field.index(query[1].getX(), query[1].getY());
+            boolean reachable = field.getDistance(index) != ReachabilityField.UNREACHABLE
+                    && scene.isWalkable(query[1].getX() - BASE_X, query[1].getY() - BASE_Y);
+            List<Tile> path = AStar.findPath(scene, query[0], query[1], AStar.NO_LIMIT);
+            if (!reachable) {
+                assertNull(path, "path to " + query[1]);
+                continue;
+            }
+            assertNotNull(path, "path to " + query[1]);
+            assertEquals(field.getDistance(index), path.size() - 1, "length of the path to " + query[1]);
+            for (int i = 1; i < path.size(); i++) {
+                Tile from = path.get(i - 1), to = path.get(i);
+                assertTrue(Math.max(Math.abs(to.getX() - from.getX()), Math.abs(to.getY() - from.getY())) == 1);
+            }
+            found++;
+        }
+        assertTrue(found > 0 && found < QUERIES, "scene should have reachable and unreachable queries, had " + found);
+    }
+
+    @Test
+    public void benchmark() {
+        long total = 0;
+        for (int round = 0; round < ROUNDS * 2; round++) {
+            long start = System.nanoTime();
+            for (Tile[] query : queries) {
+                AStar.findPath(scene, query[0], query[1], AStar.NO_LIMIT);
+            }
+            if (round >= ROUNDS) {
+                total += System.nanoTime() - start;
+            }
+        }
+        System.out.printf("AStar over a %dx%d scene: %.1f us per search%n", SIZE, SIZE, total / 1000.0 / ROUNDS / QUERIES);
+    }
+
+}